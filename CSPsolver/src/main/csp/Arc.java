@@ -0,0 +1,52 @@
+package main.csp;
+
+import java.util.*;
+
+/**
+ * Helper class organizing Arcs as defined by the AC-3 algorithm, useful for implementing the
+ * arcConsistency method. Arcs are created by a ConstraintIndex, which numbers them with an ID
+ * so that propagators can keep per-arc state in plain arrays.
+ */
+class Arc {
+    
+    public final DateConstraint CONSTRAINT;
+    public final int TAIL, HEAD, ID;
+    
+    /**
+     * Constructs a new Arc (tail -> head) where head and tail are the meeting indexes
+     * corresponding with Meeting variables and their associated domains.
+     * @param id Index of this Arc amongst those of its ConstraintIndex
+     * @param tail Meeting index of the tail
+     * @param head Meeting index of the head
+     * @param c Constraint represented by this Arc.
+     * [!] WARNING: A DateConstraint's isSatisfiedBy method is parameterized as:
+     * isSatisfiedBy (LocalDate leftDate, LocalDate rightDate), meaning L_VAL for the first
+     * parameter and R_VAL for the second. Be careful with this when creating Arcs that reverse
+     * direction. You may find the BinaryDateConstraint's getReverse method useful here.
+     */
+    public Arc (int id, int tail, int head, DateConstraint c) {
+        this.ID = id;
+        this.TAIL = tail;
+        this.HEAD = head;
+        this.CONSTRAINT = c;
+    }
+    
+    @Override
+    public boolean equals (Object other) {
+        if (this == other) { return true; }
+        if (this.getClass() != other.getClass()) { return false; }
+        Arc otherArc = (Arc) other;
+        return this.TAIL == otherArc.TAIL && this.HEAD == otherArc.HEAD && this.CONSTRAINT.equals(otherArc.CONSTRAINT);
+    }
+    
+    @Override
+    public int hashCode () {
+        return Objects.hash(this.TAIL, this.HEAD, this.CONSTRAINT);
+    }
+    
+    @Override
+    public String toString () {
+        return "(" + this.TAIL + " -> " + this.HEAD + ")";
+    }
+    
+}
@@ -0,0 +1,274 @@
+package main.csp;
+
+import java.util.*;
+
+/**
+ * Enforces arc consistency over the domains of a problem, driven by a FIFO
+ * worklist of the arcs of a ConstraintIndex. When an arc's tail is pruned,
+ * only the arcs pointing into that tail are requeued; in BOUNDS mode, arcs
+ * of ordering constraints are only requeued if the tail's bounds moved,
+ * since nothing else can change their revision. The propagator keeps
+ * its state between calls, so that the residual supports of the AC2001
+ * mode survive from one propagation to the next.
+ */
+class ArcPropagator {
+    
+    private final ConstraintIndex index;
+    private final EpochDaySet[] domains;
+    private final SolverOptions.Propagation mode;
+    private final Deque<Arc> queue = new ArrayDeque<>();
+    private final boolean[] inQueue;
+    
+    // AC2001: residues[a][t - residueBase[a]] is the last support found in the
+    // head of arc a for the tail day t, or NONE if none has been found yet
+    private final long[][] residues;
+    private final long[] residueBase;
+    
+    private Arc wipeout;
+    
+    // Charged for every revision, or null if propagation is not budgeted
+    private Meter meter;
+    
+    /**
+     * Creates a new ArcPropagator over the given domains.
+     * @param index The constraints indexed by meeting, including their arcs
+     * @param domains List of MeetingDomains in which index i corresponds to D_i
+     * @param mode The arc consistency algorithm to use when revising arcs
+     */
+    ArcPropagator (ConstraintIndex index, List<MeetingDomain> domains, SolverOptions.Propagation mode) {
+        this(index, new EpochDaySet[domains.size()], mode);
+        for (int i = 0; i < this.domains.length; i++) {
+            this.domains[i] = domains.get(i).days();
+        }
+    }
+    
+    /**
+     * Creates a new ArcPropagator over the given array of domains, which it
+     * shares with the caller: domains replaced in the array by the caller are
+     * the ones the propagator filters from then on.
+     * @param index The constraints indexed by meeting, including their arcs
+     * @param domains Array of domains in which index i corresponds to D_i
+     * @param mode The arc consistency algorithm to use when revising arcs
+     */
+    ArcPropagator (ConstraintIndex index, EpochDaySet[] domains, SolverOptions.Propagation mode) {
+        this.index = index;
+        this.domains = domains;
+        this.mode = mode;
+        this.inQueue = new boolean[index.ARCS.length];
+        this.residues = new long[index.ARCS.length][];
+        this.residueBase = new long[index.ARCS.length];
+    }
+    
+    /**
+     * Revises every arc until no domain changes any more.
+     * @param stopOnWipeout Whether to give up as soon as some domain becomes empty
+     * @return false if some domain became empty, true otherwise
+     */
+    boolean propagateAll (boolean stopOnWipeout) {
+        for (Arc a : this.index.ARCS) {
+            this.enqueue(a);
+        }
+        return this.propagate(stopOnWipeout);
+    }
+    
+    /**
+     * Charges every revision from now on to the given meter, and stops propagating
+     * as soon as it expires.
+     * @param meter The meter of the solve this propagation is part of
+     */
+    void setMeter (Meter meter) {
+        this.meter = meter;
+    }
+    
+    /**
+     * Queues every arc pointing into the given meeting, whose domain has changed,
+     * for revision by the next call to propagate.
+     * @param meeting The meeting whose domain changed
+     */
+    void enqueueIncoming (int meeting) {
+        for (int id : this.index.INCOMING[meeting]) {
+            this.enqueue(this.index.ARCS[id]);
+        }
+    }
+    
+    /**
+     * Revises the queued arcs, and those requeued by their pruning, until no
+     * domain changes any more, or until the meter expires, leaving the domains
+     * only partly filtered.
+     * @param stopOnWipeout Whether to give up as soon as some domain becomes empty
+     * @return false if some domain became empty or the meter expired, true otherwise
+     */
+    boolean propagate (boolean stopOnWipeout) {
+        boolean consistent = true;
+        while (!this.queue.isEmpty()) {
+            if (this.meter != null && !this.meter.step()) {
+                this.wipeout = null;
+                this.clearQueue();
+                return false;
+            }
+            Arc curArc = this.queue.poll();
+            this.inQueue[curArc.ID] = false;
+            EpochDaySet tail = this.domains[curArc.TAIL];
+            long lo = tail.firstDay(), hi = tail.lastDay();
+            if (this.revise(curArc)) {
+                if (tail.isEmpty()) {
+                    consistent = false;
+                    this.wipeout = curArc;
+                    if (stopOnWipeout) {
+                        this.clearQueue();
+                        return false;
+                    }
+                }
+                boolean boundsMoved = this.mode != SolverOptions.Propagation.BOUNDS
+                    || tail.firstDay() != lo || tail.lastDay() != hi;
+                for (int id : this.index.INCOMING[curArc.TAIL]) {
+                    Arc a = this.index.ARCS[id];
+                    if (boundsMoved || !a.CONSTRAINT.OPERATOR.isOrdering()) {
+                        this.enqueue(a);
+                    }
+                }
+            }
+        }
+        return consistent;
+    }
+    
+    /**
+     * @return The arc whose revision last emptied a domain, or null if none has yet
+     *         or the meter has since stopped propagation
+     */
+    Arc lastWipeout () {
+        return this.wipeout;
+    }
+    
+    /**
+     * Queues an arc for revision unless it is already queued.
+     * @param a The arc to queue
+     */
+    private void enqueue (Arc a) {
+        if (!this.inQueue[a.ID]) {
+            this.inQueue[a.ID] = true;
+            this.queue.add(a);
+        }
+    }
+    
+    /**
+     * Empties the worklist.
+     */
+    private void clearQueue () {
+        for (Arc a : this.queue) {
+            this.inQueue[a.ID] = false;
+        }
+        this.queue.clear();
+    }
+    
+    /**
+     * Prunes the tail values of an arc that have no support in its head.
+     * @param curArc The arc to revise
+     * @return true if a value is pruned from the tail domain
+     */
+    private boolean revise (Arc curArc) {
+        EpochDaySet tail = this.domains[curArc.TAIL], head = this.domains[curArc.HEAD];
+        switch (this.mode) {
+        case AC3:    return scanRevise(curArc, tail, head);
+        case AC2001: return this.residualRevise(curArc, tail, head);
+        default:     return boundsRevise(tail, head, curArc.CONSTRAINT.OPERATOR);
+        }
+    }
+    
+    /**
+     * AC3 revision: searches the head for a support of each tail value from scratch.
+     * @param curArc The arc to revise
+     * @param tail The arc's tail domain
+     * @param head The arc's head domain
+     * @return true if a value is pruned from the tail domain
+     */
+    private static boolean scanRevise (Arc curArc, EpochDaySet tail, EpochDaySet head) {
+        boolean removed = false;
+        for (long t = tail.firstDay(); t != EpochDaySet.NONE; t = tail.nextDay(t + 1)) {
+            boolean satisfied = false;
+            for (long h = head.firstDay(); h != EpochDaySet.NONE; h = head.nextDay(h + 1)) {
+                if (curArc.CONSTRAINT.isSatisfiedBy(t, h)) {
+                    satisfied = true;
+                    break;
+                }
+            }
+            if (!satisfied) {
+                removed |= tail.removeDay(t);
+            }
+        }
+        return removed;
+    }
+    
+    /**
+     * AC2001 revision: a tail value whose last support is still in the head needs
+     * no work at all; otherwise the search for a new support resumes just after
+     * the last one, wrapping around to the start of the head domain (which only
+     * matters if values were put back into the head since the last revision).
+     * @param curArc The arc to revise
+     * @param tail The arc's tail domain
+     * @param head The arc's head domain
+     * @return true if a value is pruned from the tail domain
+     */
+    private boolean residualRevise (Arc curArc, EpochDaySet tail, EpochDaySet head) {
+        if (tail.isEmpty()) { return false; }
+        long[] last = this.residues[curArc.ID];
+        if (last == null) {
+            this.residueBase[curArc.ID] = tail.firstDay();
+            last = this.residues[curArc.ID] = new long[(int) (tail.lastDay() - tail.firstDay() + 1)];
+            Arrays.fill(last, EpochDaySet.NONE);
+        }
+        long base = this.residueBase[curArc.ID];
+        DateConstraint c = curArc.CONSTRAINT;
+        boolean removed = false;
+        for (long t = tail.firstDay(); t != EpochDaySet.NONE; t = tail.nextDay(t + 1)) {
+            long i = t - base;
+            long residue = (i >= 0 && i < last.length) ? last[(int) i] : EpochDaySet.NONE;
+            if (residue != EpochDaySet.NONE && head.containsDay(residue)) {
+                continue;
+            }
+            long h = (residue == EpochDaySet.NONE) ? head.firstDay() : head.nextDay(residue + 1);
+            while (h != EpochDaySet.NONE && !c.isSatisfiedBy(t, h)) {
+                h = head.nextDay(h + 1);
+            }
+            if (h == EpochDaySet.NONE && residue != EpochDaySet.NONE) {
+                for (h = head.firstDay(); h != EpochDaySet.NONE && h < residue; h = head.nextDay(h + 1)) {
+                    if (c.isSatisfiedBy(t, h)) { break; }
+                }
+                if (h != EpochDaySet.NONE && h >= residue) { h = EpochDaySet.NONE; }
+            }
+            if (h == EpochDaySet.NONE) {
+                removed |= tail.removeDay(t);
+            } else if (i >= 0 && i < last.length) {
+                last[(int) i] = h;
+            }
+        }
+        return removed;
+    }
+    
+    /**
+     * BOUNDS revision: prunes the tail of an arc using only the bounds of the head.
+     * For an ordering operator the supported tail values form a single range ending
+     * at the head's min or max, so the revision is a constant number of bound
+     * comparisons plus the cost of the removal itself; == keeps the run-wise
+     * intersection of both domains and != only prunes when the head is a singleton.
+     * @param tail The arc's tail domain
+     * @param head The arc's head domain
+     * @param op The operator of the arc's constraint, oriented tail op head
+     * @return true if a value is pruned from the tail domain
+     */
+    private static boolean boundsRevise (EpochDaySet tail, EpochDaySet head, DateConstraint.Operator op) {
+        if (head.isEmpty()) {
+            boolean removed = !tail.isEmpty();
+            tail.clear();
+            return removed;
+        }
+        switch (op) {
+        case EQ: return tail.retainDays(head);
+        case NE: return head.cardinality() == 1 && tail.removeDay(head.firstDay());
+        case LT:
+        case LE: return tail.restrict(op, head.lastDay());
+        default: return tail.restrict(op, head.firstDay());
+        }
+    }
+    
+}
@@ -0,0 +1,875 @@
+package main.csp;
+
+import java.util.*;
+
+/**
+ * Backtracking search over the filtered domains of a problem, assigning
+ * meetings in the order chosen by the variable ordering heuristic of the
+ * SolverOptions, and trying its dates in the order given by the value
+ * ordering. Depending on those options, a tentative
+ * assignment is either checked against the constraints incident to the
+ * meeting (BACKTRACKING), used to immediately filter the domains of the
+ * meeting's unassigned neighbors (FORWARD_CHECKING), or followed by restoring
+ * arc consistency starting from the arcs into the assigned meeting
+ * (MAINTAIN_ARC_CONSISTENCY), backtracking as soon as some domain runs out of
+ * values. The search is iterative, keeping one frame per assigned meeting on
+ * an explicit stack, so that its depth is not limited by the thread's stack
+ * size. Each dead end adds to the weight of the constraint that caused it,
+ * for the DOM_WDEG ordering.
+ * 
+ * With backjumping enabled, BACKTRACKING and FORWARD_CHECKING keep for each
+ * frame the depths of the earlier assignments that ruled out its dates (its
+ * conflict set), and once all of the dates have failed jump straight back to
+ * the deepest of them, passing the rest of the conflict set on to it. MAC
+ * always backtracks chronologically.
+ * 
+ * With nogood learning enabled, every failed frame also records its conflict
+ * set's assignments (or, without backjumping, every assignment above it) as a
+ * nogood, and no date completing a stored nogood is ever tried again.
+ * 
+ * With restarts enabled, each run of the search gives up after a number of
+ * failed frames set by the restart schedule, and the next run starts over from
+ * an empty assignment, with ties between meetings and between least
+ * constraining dates broken at random. Constraint weights and nogoods carry
+ * over from one run to the next.
+ * 
+ * With a Meter set, every assignment, dead end and revision made by MAC is
+ * charged to it, and the search stops as soon as it expires, keeping the
+ * deepest assignment reached.
+ */
+class BacktrackSearch {
+    
+    private final ConstraintIndex index;
+    private final SolverOptions.Search mode;
+    private final SolverOptions.VariableOrder order;
+    private final SolverOptions.ValueOrder valueOrder;
+    private final Random random;
+    private final int n;
+    private final EpochDaySet[] domains;
+    private final long[] days;
+    private final boolean[] assigned;
+    private final ArcPropagator propagator;
+    
+    // Search stack: the frame at depth k assigns stackMeeting[k], has tried its first
+    // stackValue[k] dates (in the order given by stackOrdered[k], if not null), and
+    // undoes its current date's filtering by returning the trail to stackMark[k]
+    private final int[] stackMeeting, stackValue, stackMark;
+    private final long[][] stackOrdered;
+    
+    // The number of meetings assigned when the search last stopped, or -1 once it has
+    // run out of assignments, and whether it has started at all
+    private int depth;
+    private boolean started;
+    
+    // Backjumping: conflicts[k] holds the depths of the assignments that the dates
+    // tried at depth k conflicted with, and prunedBy[m][0..prunedCount[m]) the
+    // ascending depths of the assignments that forward checking filtered D_m for
+    private final boolean backjumping;
+    private final int[] depthOf;
+    private final BitSet[] conflicts;
+    private final int[][] prunedBy;
+    private final int[] prunedCount;
+    
+    // Restarts: the number of the current run, the number of frames that ran out of
+    // dates so far, and the number at which the current run gives up
+    private final SolverOptions.Restarts restarts;
+    private final int restartBase;
+    private final double restartFactor;
+    private int run = 1;
+    private long fails, failLimit;
+    
+    // Learned nogoods, or null if nogood learning is disabled
+    private final NogoodStore nogoods;
+    
+    // Budget: the meter charged for each assignment and dead end, if any, and once it
+    // has stopped the search, the deepest assignment reached, with NONE for each
+    // meeting it leaves unassigned
+    private Meter meter;
+    private long[] partial;
+    private int partialDepth = -1;
+    private boolean stopped;
+    
+    // Optimization: the objective to minimize, if any, the cost of the best solution
+    // found so far, which every partial assignment must be able to beat, and the
+    // range of days left to each meeting, from which the objective bounds the cost
+    private Objective objective;
+    private long bestCost = Long.MAX_VALUE;
+    private final long[] earliest, latest;
+    
+    // Counting: the number of solutions of residual subproblems already counted,
+    // keyed by the unassigned meetings' domains, least recently used first
+    private static final int COUNT_CACHE_CAPACITY = 1 << 16;
+    private final LinkedHashMap<Residual, Long> counts = new LinkedHashMap<Residual, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry (Map.Entry<Residual, Long> eldest) {
+            return this.size() > COUNT_CACHE_CAPACITY;
+        }
+    };
+    
+    // Records the values filtered out of the domains, which are changed in place
+    private final Trail trail;
+    
+    // weight[k] counts the dead ends caused by the constraint of arcs 2k and 2k + 1
+    private final int[] weight;
+    
+    /**
+     * Creates a new BacktrackSearch over the given domains.
+     * @param index The constraints indexed by meeting
+     * @param domains List of MeetingDomains in which index i corresponds to D_i
+     * @param options Settings for the search
+     */
+    BacktrackSearch (ConstraintIndex index, List<MeetingDomain> domains, SolverOptions options) {
+        this.index = index;
+        this.mode = options.search;
+        this.order = options.variableOrder;
+        this.valueOrder = options.valueOrder;
+        this.random = new Random(options.seed);
+        this.restarts = options.restarts;
+        this.restartBase = options.restartBase;
+        this.restartFactor = options.restartFactor;
+        this.n = domains.size();
+        this.domains = new EpochDaySet[this.n];
+        this.trail = new Trail();
+        for (int i = 0; i < this.n; i++) {
+            this.domains[i] = domains.get(i).days();
+        }
+        this.days = new long[this.n];
+        this.assigned = new boolean[this.n];
+        this.stackMeeting = new int[this.n];
+        this.stackValue = new int[this.n];
+        this.stackMark = new int[this.n];
+        this.stackOrdered = new long[this.n][];
+        this.earliest = new long[this.n];
+        this.latest = new long[this.n];
+        this.backjumping = options.backjumping && this.mode != SolverOptions.Search.MAINTAIN_ARC_CONSISTENCY;
+        this.depthOf = new int[this.n];
+        this.conflicts = new BitSet[this.backjumping ? this.n : 0];
+        for (int k = 0; k < this.conflicts.length; k++) {
+            this.conflicts[k] = new BitSet();
+        }
+        this.prunedBy = new int[this.backjumping ? this.n : 0][];
+        Arrays.fill(this.prunedBy, new int[0]);
+        this.prunedCount = new int[this.n];
+        this.nogoods = options.learnNogoods ? new NogoodStore(this.n, options.nogoodCapacity) : null;
+        this.weight = new int[index.ARCS.length / 2];
+        Arrays.fill(this.weight, 1);
+        this.propagator = (this.mode == SolverOptions.Search.MAINTAIN_ARC_CONSISTENCY)
+            ? new ArcPropagator(index, this.domains, options.propagation)
+            : null;
+    }
+    
+    /**
+     * Searches for a complete, consistent assignment. The domains are filtered
+     * in place during the search, and left as they were found when it ends.
+     * @return The epoch day assigned to each meeting, or null if there is no solution
+     */
+    long[] solve () {
+        try {
+            return this.next();
+        } finally {
+            this.close();
+        }
+    }
+    
+    /**
+     * Searches for the next complete, consistent assignment, resuming from the one
+     * last returned. The domains stay filtered in place between calls, until the
+     * search runs out of assignments or is closed. Successive calls only visit
+     * every assignment once when the search backtracks chronologically, without
+     * backjumping, nogood learning or restarts.
+     * @return The epoch day assigned to each meeting, or null if there are no more
+     */
+    long[] next () {
+        if (!this.started) {
+            for (EpochDaySet values : this.domains) {
+                values.setTrail(this.trail);
+            }
+        }
+        if (this.search()) {
+            return this.days.clone();
+        }
+        this.close();
+        return null;
+    }
+    
+    /**
+     * Charges every assignment, dead end and arc revision from now on to the given
+     * meter, and stops the search as soon as the meter expires.
+     * @param meter The meter of the solve this search is part of
+     */
+    void setMeter (Meter meter) {
+        this.meter = meter;
+        if (this.propagator != null) {
+            this.propagator.setMeter(meter);
+        }
+    }
+    
+    /**
+     * @return The deepest partial assignment reached before the meter stopped the
+     *         search, with NONE as the day of each unassigned meeting, or null if
+     *         the meter has not stopped it
+     */
+    long[] partial () {
+        return this.stopped ? this.partial : null;
+    }
+    
+    /**
+     * Ends the search, putting the domains back as they were found.
+     */
+    void close () {
+        this.trail.undo(0);
+        for (EpochDaySet values : this.domains) {
+            values.setTrail(null);
+        }
+        this.depth = -1;
+    }
+    
+    /**
+     * Searches for the complete, consistent assignment of least cost, by branch and
+     * bound: each solution found becomes the incumbent, and from then on any partial
+     * assignment whose domains bound the cost at no less than the incumbent's is
+     * abandoned. The search must backtrack chronologically, as when resumed by next.
+     * @param objective The cost to minimize
+     * @return The epoch day assigned to each meeting in an optimal solution, or null
+     *         if there is no solution
+     */
+    long[] optimize (Objective objective) {
+        this.objective = objective;
+        long[] best = null;
+        for (long[] days = this.next(); days != null; days = this.next()) {
+            long cost = objective.cost(days);
+            if (cost < this.bestCost) {
+                best = days;
+                this.bestCost = cost;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * @return Whether the current partial assignment could still lead to a solution
+     *         cheaper than the incumbent
+     */
+    private boolean canImprove () {
+        if (this.bestCost == Long.MAX_VALUE) { return true; }
+        for (int i = 0; i < this.n; i++) {
+            if (this.assigned[i]) {
+                this.earliest[i] = this.latest[i] = this.days[i];
+            } else {
+                this.earliest[i] = this.domains[i].firstDay();
+                this.latest[i] = this.domains[i].lastDay();
+            }
+        }
+        return this.objective.lowerBound(this.earliest, this.latest) < this.bestCost;
+    }
+    
+    /**
+     * Counts the complete, consistent assignments, without building any of them.
+     * Each subtree counted is cached under its residual subproblem: the unassigned
+     * meetings and their domains, which determine its count as long as the search
+     * filters the domains of unassigned meetings against every assignment
+     * (FORWARD_CHECKING or MAINTAIN_ARC_CONSISTENCY) and backtracks chronologically.
+     * @return The number of solutions, or Long.MAX_VALUE if there are more than that
+     */
+    long count () {
+        for (EpochDaySet values : this.domains) {
+            values.setTrail(this.trail);
+        }
+        try {
+            // counted[k] is the number of solutions found so far below the frame at depth k
+            long[] counted = new long[this.n + 1];
+            Residual[] residuals = new Residual[this.n];
+            int depth = 0;
+            boolean descending = true;
+            while (true) {
+                int finished = -1;
+                if (descending) {
+                    descending = false;
+                    if (depth == this.n) {
+                        counted[depth] = 1;
+                        finished = depth;
+                    } else {
+                        residuals[depth] = this.residual();
+                        Long cached = this.counts.get(residuals[depth]);
+                        if (cached != null) {
+                            counted[depth] = cached;
+                            finished = depth;
+                        } else {
+                            counted[depth] = 0;
+                            this.openFrame(depth);
+                        }
+                    }
+                } else if (this.nextAssignment(depth)) {
+                    depth++;
+                    descending = true;
+                } else {
+                    this.counts.put(residuals[depth], counted[depth]);
+                    finished = depth;
+                }
+                if (finished >= 0) {
+                    // Add the finished subtree's count to the frame above it
+                    if (finished == 0) { return counted[0]; }
+                    depth = finished - 1;
+                    long sum = counted[depth] + counted[finished];
+                    counted[depth] = (sum < 0) ? Long.MAX_VALUE : sum;
+                    this.retract(depth);
+                }
+            }
+        } finally {
+            this.close();
+        }
+    }
+    
+    /**
+     * @return The residual subproblem of the current assignment
+     */
+    private Residual residual () {
+        long[] key = new long[16];
+        int size = 0;
+        for (int i = 0; i < this.n; i++) {
+            if (this.assigned[i]) { continue; }
+            EpochDaySet values = this.domains[i];
+            if (size + 2 > key.length) {
+                key = Arrays.copyOf(key, 2 * key.length);
+            }
+            key[size++] = i;
+            int runs = size++;
+            for (long start = values.firstDay(); start != EpochDaySet.NONE; ) {
+                long end = values.runEnd(start);
+                if (size + 2 > key.length) {
+                    key = Arrays.copyOf(key, 2 * key.length);
+                }
+                key[size++] = start;
+                key[size++] = end;
+                key[runs]++;
+                start = values.nextDay(end + 1);
+            }
+        }
+        return new Residual(Arrays.copyOf(key, size));
+    }
+    
+    /**
+     * Assigns every meeting, pushing a frame for each meeting assigned and
+     * popping it once all of its dates have failed. After a complete assignment,
+     * the next call resumes from the last frame's next date.
+     * @return true if days now holds a complete, consistent assignment
+     */
+    private boolean search () {
+        int depth = this.depth;
+        if (!this.started) {
+            this.started = true;
+            if (this.n == 0) { return true; }
+            this.failLimit = this.restartLimit(this.run);
+            if (this.meter != null && this.meter.expired()) {
+                return this.stop(depth);
+            }
+            this.openFrame(depth);
+        } else if (depth == this.n) {
+            if (depth == 0) {
+                this.depth = -1;
+                return false;
+            }
+            this.retract(--depth);
+        }
+        while (depth >= 0) {
+            if (this.nextAssignment(depth)) {
+                if (++depth == this.n) {
+                    this.depth = depth;
+                    return true;
+                }
+                if (this.meter != null && !this.meter.node()) {
+                    return this.stop(depth);
+                }
+                this.openFrame(depth);
+            } else {
+                this.fails++;
+                if (this.meter != null) {
+                    this.snapshot(depth);
+                    if (!this.meter.fail()) {
+                        return this.stop(depth);
+                    }
+                }
+                depth = this.backtrack(depth);
+                if (depth >= 0 && this.fails >= this.failLimit) {
+                    this.unwind(depth);
+                    this.failLimit = this.fails + this.restartLimit(++this.run);
+                    depth = 0;
+                    this.openFrame(depth);
+                }
+            }
+        }
+        this.depth = -1;
+        return false;
+    }
+    
+    /**
+     * Gives up the search once the meter has expired, keeping its deepest partial
+     * assignment.
+     * @param depth The number of meetings currently assigned
+     * @return false, as no complete assignment was found
+     */
+    private boolean stop (int depth) {
+        this.snapshot(depth);
+        this.stopped = true;
+        this.depth = -1;
+        return false;
+    }
+    
+    /**
+     * Keeps the current assignment as the deepest partial one, if it is.
+     * @param depth The number of meetings currently assigned
+     */
+    private void snapshot (int depth) {
+        if (depth <= this.partialDepth) { return; }
+        this.partialDepth = depth;
+        this.partial = new long[this.n];
+        Arrays.fill(this.partial, EpochDaySet.NONE);
+        for (int k = 0; k < depth; k++) {
+            int meeting = this.stackMeeting[k];
+            this.partial[meeting] = this.days[meeting];
+        }
+    }
+    
+    /**
+     * @param run The number of the run, starting from 1
+     * @return The number of failed frames after which the run gives up
+     */
+    private long restartLimit (int run) {
+        switch (this.restarts) {
+        case LUBY:
+            return this.restartBase * luby(run);
+        case GEOMETRIC:
+            double limit = this.restartBase * Math.pow(this.restartFactor, run - 1);
+            return (limit >= Long.MAX_VALUE) ? Long.MAX_VALUE : Math.max(1, (long) limit);
+        default:
+            return Long.MAX_VALUE;
+        }
+    }
+    
+    /**
+     * @param i A position in the Luby sequence, starting from 1
+     * @return The i-th term of the sequence 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ...
+     */
+    private static long luby (int i) {
+        while (true) {
+            // 2^k - 1 is the first position at which 2^(k-1) appears
+            int k = 1;
+            while ((1L << k) - 1 < i) { k++; }
+            if ((1L << k) - 1 == i) {
+                return 1L << (k - 1);
+            }
+            i -= (1 << (k - 1)) - 1;
+        }
+    }
+    
+    /**
+     * Takes back every assignment, from the given depth up, to restart the search.
+     * @param depth The depth of the open frame, whose meeting is unassigned
+     */
+    private void unwind (int depth) {
+        this.stackOrdered[depth] = null;
+        for (int k = depth - 1; k >= 0; k--) {
+            this.retract(k);
+            this.stackOrdered[k] = null;
+        }
+    }
+    
+    /**
+     * Pops the frame at the given depth, whose dates have all failed, and retracts
+     * the assignment of the frame to resume: the one just below it, or when
+     * backjumping the deepest one in its conflict set.
+     * @param depth The depth of the failed frame
+     * @return The depth of the frame to resume, or -1 if there is none
+     */
+    private int backtrack (int depth) {
+        if (!this.backjumping) {
+            if (this.nogoods != null) {
+                this.nogoods.record(this.stackMeeting, depth, this.days);
+            }
+            if (--depth >= 0) {
+                this.retract(depth);
+            }
+            return depth;
+        }
+        // The dates filtered out of the meeting's domain failed too
+        BitSet conflicts = this.conflicts[depth];
+        int meeting = this.stackMeeting[depth];
+        for (int k = 0; k < this.prunedCount[meeting]; k++) {
+            conflicts.set(this.prunedBy[meeting][k]);
+        }
+        int target = conflicts.length() - 1;
+        if (this.nogoods != null) {
+            int[] culprits = new int[conflicts.cardinality()];
+            int count = 0;
+            for (int k = conflicts.nextSetBit(0); k >= 0; k = conflicts.nextSetBit(k + 1)) {
+                culprits[count++] = this.stackMeeting[k];
+            }
+            this.nogoods.record(culprits, count, this.days);
+        }
+        for (int k = depth - 1; k > target; k--) {
+            this.retract(k);
+            this.stackOrdered[k] = null;
+        }
+        if (target >= 0) {
+            conflicts.clear(target);
+            this.conflicts[target].or(conflicts);
+            this.retract(target);
+        }
+        return target;
+    }
+    
+    /**
+     * A residual subproblem, flattened into the index of each unassigned meeting
+     * followed by the number of runs of dates in its domain and their bounds.
+     */
+    private static final class Residual {
+        
+        private final long[] key;
+        private final int hash;
+        
+        Residual (long[] key) {
+            this.key = key;
+            this.hash = Arrays.hashCode(key);
+        }
+        
+        @Override
+        public boolean equals (Object other) {
+            return (other instanceof Residual) && Arrays.equals(this.key, ((Residual) other).key);
+        }
+        
+        @Override
+        public int hashCode () {
+            return this.hash;
+        }
+        
+    }
+    
+    /**
+     * Chooses the meeting to assign at the given depth and orders its dates.
+     * @param depth The number of meetings already assigned
+     */
+    private void openFrame (int depth) {
+        int meeting = this.selectMeeting();
+        this.stackMeeting[depth] = meeting;
+        this.stackValue[depth] = 0;
+        this.stackOrdered[depth] = this.orderValues(meeting);
+        if (this.backjumping) {
+            this.conflicts[depth].clear();
+        }
+    }
+    
+    /**
+     * Gives the meeting of the frame at the given depth its next date that is
+     * consistent with the assignment so far, and propagates it.
+     * @param depth The depth of the frame
+     * @return false if the meeting has no more dates to try, true otherwise
+     */
+    private boolean nextAssignment (int depth) {
+        int meeting = this.stackMeeting[depth];
+        EpochDaySet values = this.domains[meeting];
+        long[] ordered = this.stackOrdered[depth];
+        long d;
+        while ((d = this.nextValue(values, ordered, this.stackValue[depth], this.days[meeting])) != EpochDaySet.NONE) {
+            this.stackValue[depth]++;
+            this.days[meeting] = d;
+            if (this.mode == SolverOptions.Search.BACKTRACKING) {
+                int conflict = this.index.conflict(meeting, this.days, this.assigned);
+                if (conflict >= 0) {
+                    this.weight[conflict >>> 1]++;
+                    if (this.backjumping) {
+                        this.conflicts[depth].set(this.depthOf[this.index.ARCS[conflict].HEAD]);
+                    }
+                    continue;
+                }
+            }
+            if (this.nogoods != null) {
+                NogoodStore.Nogood nogood = this.nogoods.violated(meeting, this.days, this.assigned);
+                if (nogood != null) {
+                    if (this.backjumping) {
+                        for (int m : nogood.MEETINGS) {
+                            if (m != meeting) {
+                                this.conflicts[depth].set(this.depthOf[m]);
+                            }
+                        }
+                    }
+                    continue;
+                }
+            }
+            this.assigned[meeting] = true;
+            this.depthOf[meeting] = depth;
+            this.stackMark[depth] = this.trail.mark();
+            if (this.propagate(meeting) && (this.objective == null || this.canImprove())) {
+                return true;
+            }
+            this.retract(depth);
+        }
+        this.stackOrdered[depth] = null;
+        return false;
+    }
+    
+    /**
+     * Takes back the current date of the meeting of the frame at the given depth,
+     * along with the filtering it caused.
+     * @param depth The depth of the frame
+     */
+    private void retract (int depth) {
+        int meeting = this.stackMeeting[depth];
+        this.trail.undo(this.stackMark[depth]);
+        this.assigned[meeting] = false;
+        if (this.backjumping) {
+            for (BinaryDateConstraint bc : this.index.BINARY[meeting]) {
+                int other = bc.R_VAL, count = this.prunedCount[other];
+                if (count > 0 && this.prunedBy[other][count - 1] == depth) {
+                    this.prunedCount[other]--;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Chooses the unassigned meeting to assign next, as the one minimizing the ratio
+     * of its domain size to its (weighted) degree, where each heuristic fixes one of
+     * the two terms or the other. A degree of 0 counts as an infinite ratio. Ties go
+     * to the lowest index, or with restarts to a random one of the tied meetings.
+     * @return The index of the chosen meeting
+     */
+    private int selectMeeting () {
+        int best = -1, ties = 0;
+        long bestDom = 0, bestDeg = 0;
+        for (int i = 0; i < this.n; i++) {
+            if (this.assigned[i]) { continue; }
+            if (this.order == SolverOptions.VariableOrder.INDEX) { return i; }
+            long dom = (this.order == SolverOptions.VariableOrder.DEGREE) ? 1 : this.domains[i].cardinality();
+            long deg = 1;
+            if (this.order != SolverOptions.VariableOrder.MRV) {
+                deg = this.degree(i, this.order == SolverOptions.VariableOrder.DOM_WDEG);
+            }
+            // dom / deg < bestDom / bestDeg
+            if (best < 0 || dom * bestDeg < bestDom * deg) {
+                best = i;
+                bestDom = dom;
+                bestDeg = deg;
+                ties = 1;
+            } else if (this.restarts != SolverOptions.Restarts.NONE && dom * bestDeg == bestDom * deg) {
+                // Each of the tied meetings ends up chosen with the same probability
+                if (this.random.nextInt(++ties) == 0) {
+                    best = i;
+                }
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * @param meeting An unassigned meeting
+     * @param weighted Whether to count each constraint by its weight instead of once
+     * @return The number of constraints between the meeting and unassigned meetings
+     */
+    private long degree (int meeting, boolean weighted) {
+        long degree = 0;
+        int[] arcs = this.index.OUTGOING[meeting];
+        for (int j = 0; j < arcs.length; j++) {
+            if (!this.assigned[this.index.BINARY[meeting][j].R_VAL]) {
+                degree += weighted ? this.weight[arcs[j] >>> 1] : 1;
+            }
+        }
+        return degree;
+    }
+    
+    /**
+     * Lists the dates of the meeting's domain in the order they are to be tried,
+     * unless that is simply date order.
+     * @param meeting The meeting about to be assigned
+     * @return The ordered dates, or null if the domain is to be walked in (reverse)
+     *         date order instead
+     */
+    private long[] orderValues (int meeting) {
+        if (this.valueOrder == SolverOptions.ValueOrder.ASCENDING
+            || this.valueOrder == SolverOptions.ValueOrder.DESCENDING) {
+            return null;
+        }
+        EpochDaySet values = this.domains[meeting];
+        long[] ordered = new long[values.cardinality()];
+        int k = 0;
+        for (long d = values.firstDay(); d != EpochDaySet.NONE; d = values.nextDay(d + 1)) {
+            ordered[k++] = d;
+        }
+        if (this.valueOrder == SolverOptions.ValueOrder.RANDOM) {
+            this.shuffle(ordered);
+            return ordered;
+        }
+        if (this.restarts != SolverOptions.Restarts.NONE) {
+            this.shuffle(ordered);
+        }
+        
+        // Sort (cost, position) pairs packed into longs, which keeps equal costs in
+        // date order, or in random order with restarts
+        long[] keys = new long[ordered.length];
+        for (int i = 0; i < ordered.length; i++) {
+            keys[i] = ((long) this.pruneCount(meeting, ordered[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+        long[] sorted = new long[ordered.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = ordered[(int) keys[i]];
+        }
+        return sorted;
+    }
+    
+    /**
+     * Shuffles the given dates with the search's seeded generator.
+     * @param ordered The dates to shuffle
+     */
+    private void shuffle (long[] ordered) {
+        for (int i = ordered.length - 1; i > 0; i--) {
+            int j = this.random.nextInt(i + 1);
+            long swap = ordered[i];
+            ordered[i] = ordered[j];
+            ordered[j] = swap;
+        }
+    }
+    
+    /**
+     * @param values The domain of the meeting being assigned
+     * @param ordered The dates of the domain in order, or null to walk the domain itself
+     * @param k The number of dates already tried
+     * @param previous The date tried last, if any
+     * @return The next date to try, or NONE if there are no more
+     */
+    private long nextValue (EpochDaySet values, long[] ordered, int k, long previous) {
+        if (ordered != null) {
+            return (k < ordered.length) ? ordered[k] : EpochDaySet.NONE;
+        }
+        if (this.valueOrder == SolverOptions.ValueOrder.DESCENDING) {
+            return (k == 0) ? values.lastDay() : values.prevDay(previous - 1);
+        }
+        return (k == 0) ? values.firstDay() : values.nextDay(previous + 1);
+    }
+    
+    /**
+     * Counts the dates that assigning the given date to the meeting would rule out
+     * in the domains of its unassigned neighbors.
+     * @param meeting The meeting about to be assigned
+     * @param day A date in its domain
+     * @return The number of dates ruled out, at most Integer.MAX_VALUE
+     */
+    private int pruneCount (int meeting, long day) {
+        long count = 0;
+        for (BinaryDateConstraint bc : this.index.BINARY[meeting]) {
+            if (this.assigned[bc.R_VAL]) { continue; }
+            EpochDaySet other = this.domains[bc.R_VAL];
+            // The dates d of other for which (d op' day) is false
+            switch (bc.OPERATOR.symmetric()) {
+            case EQ: count += other.cardinality() - (other.containsDay(day) ? 1 : 0); break;
+            case NE: count += other.containsDay(day) ? 1 : 0;                         break;
+            case LT: count += other.countRange(day, Long.MAX_VALUE);                  break;
+            case LE: count += other.countRange(day + 1, Long.MAX_VALUE);              break;
+            case GT: count += other.countRange(Long.MIN_VALUE, day);                  break;
+            default: count += other.countRange(Long.MIN_VALUE, day - 1);
+            }
+        }
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Propagates the assignment of the given meeting according to the search mode.
+     * @param meeting The meeting that was just assigned
+     * @return false if some domain became empty, true otherwise
+     */
+    private boolean propagate (int meeting) {
+        switch (this.mode) {
+        case FORWARD_CHECKING:         return this.forwardCheck(meeting);
+        case MAINTAIN_ARC_CONSISTENCY: return this.maintainArcConsistency(meeting);
+        default:                       return true;
+        }
+    }
+    
+    /**
+     * Reduces the domain of the just assigned meeting to its date, then re-establishes
+     * arc consistency starting from the arcs pointing into it.
+     * @param meeting The meeting that was just assigned
+     * @return false if some domain became empty, true otherwise
+     */
+    private boolean maintainArcConsistency (int meeting) {
+        long day = this.days[meeting];
+        this.domains[meeting].retainRange(day, day);
+        this.propagator.enqueueIncoming(meeting);
+        if (!this.propagator.propagate(true)) {
+            Arc wipeout = this.propagator.lastWipeout();
+            if (wipeout != null) {
+                this.weight[wipeout.ID >>> 1]++;
+            }
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Removes from the domain of each unassigned neighbor of the just assigned meeting
+     * the values that are inconsistent with its date.
+     * @param meeting The meeting that was just assigned
+     * @return false if some neighbor's domain became empty, true otherwise
+     */
+    private boolean forwardCheck (int meeting) {
+        long day = this.days[meeting];
+        BinaryDateConstraint[] incident = this.index.BINARY[meeting];
+        for (int j = 0; j < incident.length; j++) {
+            BinaryDateConstraint bc = incident[j];
+            int other = bc.R_VAL;
+            if (this.assigned[other]) { continue; }
+            // meeting op other holds exactly when other op' meeting does
+            DateConstraint.Operator op = bc.OPERATOR.symmetric();
+            if (!needsFiltering(this.domains[other], op, day)) { continue; }
+            this.domains[other].restrict(op, day);
+            if (this.backjumping) {
+                this.recordPruning(other, this.depthOf[meeting]);
+            }
+            if (this.domains[other].isEmpty()) {
+                this.weight[this.index.OUTGOING[meeting][j] >>> 1]++;
+                if (this.backjumping) {
+                    // D_other was emptied by every assignment that filtered it
+                    int depth = this.depthOf[meeting];
+                    for (int k = 0; k < this.prunedCount[other]; k++) {
+                        this.conflicts[depth].set(this.prunedBy[other][k]);
+                    }
+                    this.conflicts[depth].clear(depth);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Records that the assignment at the given depth filtered the meeting's domain.
+     * @param meeting An unassigned meeting
+     * @param depth The depth of the assignment, no less than any recorded before
+     */
+    private void recordPruning (int meeting, int depth) {
+        int count = this.prunedCount[meeting];
+        if (count > 0 && this.prunedBy[meeting][count - 1] == depth) { return; }
+        if (count == this.prunedBy[meeting].length) {
+            this.prunedBy[meeting] = Arrays.copyOf(this.prunedBy[meeting], Math.max(4, 2 * count));
+        }
+        this.prunedBy[meeting][count] = depth;
+        this.prunedCount[meeting]++;
+    }
+    
+    /**
+     * @param values The domain to filter
+     * @param op The operator each remaining value must satisfy against day
+     * @param day The epoch day compared against
+     * @return Whether restricting values by (op, day) would remove anything
+     */
+    private static boolean needsFiltering (EpochDaySet values, DateConstraint.Operator op, long day) {
+        switch (op) {
+        case EQ: return values.cardinality() > 1 || !values.containsDay(day);
+        case NE: return values.containsDay(day);
+        case LT: return values.lastDay() >= day;
+        case LE: return values.lastDay() > day;
+        case GT: return values.firstDay() <= day;
+        default: return values.firstDay() < day;
+        }
+    }
+    
+}
@@ -0,0 +1,55 @@
+package main.csp;
+
+import java.time.Instant;
+
+/**
+ * Limits on the work CSPSolver may spend searching for a solution before it
+ * gives up and reports the deepest partial assignment it reached, and the
+ * token through which the caller may stop it early. A new Budget is
+ * unlimited; fields may be changed freely before the budget is handed to the
+ * solver. Both the search and arc consistency propagation, before and during
+ * the search, are budgeted; only node consistency and the temporal network,
+ * which take polynomial time, always run to completion.
+ */
+public class Budget {
+    
+    /**
+     * The instant after which the search stops, or null for no deadline.
+     */
+    public Instant deadline = null;
+    
+    /**
+     * The largest number of assignments the search may make.
+     */
+    public long nodes = Long.MAX_VALUE;
+    
+    /**
+     * The largest number of dead ends, meetings all of whose dates have failed,
+     * the search may run into.
+     */
+    public long fails = Long.MAX_VALUE;
+    
+    /**
+     * The token that stops the solve once cancelled, or null for none. Whether or
+     * not there is one, interrupting the thread that called the solver stops it too.
+     */
+    public CancellationToken cancellation = null;
+    
+    /**
+     * Creates a new, unlimited Budget.
+     */
+    public Budget () {}
+    
+    /**
+     * Copy-constructor for a Budget that initializes it with the same limits as
+     * the other.
+     * @param other Other Budget from which to make a copy.
+     */
+    public Budget (Budget other) {
+        this.deadline = other.deadline;
+        this.nodes = other.nodes;
+        this.fails = other.fails;
+        this.cancellation = other.cancellation;
+    }
+    
+}
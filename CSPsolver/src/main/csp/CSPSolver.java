@@ -6,6 +6,8 @@ package main.csp;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.*;
 
 import javax.swing.SpringLayout.Constraints;
 
@@ -32,67 +34,419 @@ public class CSPSolver {
      *         indexed by the variable they satisfy, or null if no solution exists.
      */
     public static List<LocalDate> solve (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints) {
-    	List<LocalDate> assignment = new ArrayList<>();
-    	List<MeetingDomain> domains = generateDomains(nMeetings, rangeStart, rangeEnd);
+    	return solve(nMeetings, rangeStart, rangeEnd, constraints, new SolverOptions());
+    }
+    
+    /**
+     * Solves the CSP as solve(nMeetings, rangeStart, rangeEnd, constraints) does,
+     * but with the given solver options.
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times (unary and binary for this assignment)
+     * @param options Settings for the algorithms the solver uses
+     * @return A list of dates that satisfies each of the constraints for each of the n meetings,
+     *         indexed by the variable they satisfy, or null if no solution exists.
+     */
+    public static List<LocalDate> solve (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, SolverOptions options) {
+    	return solveMetered(nMeetings, rangeStart, rangeEnd, constraints, options, null);
+    }
+    
+    /**
+     * Solves the CSP as solve(nMeetings, rangeStart, rangeEnd, constraints, options)
+     * does, but gives up once the search has spent the given budget, or once the
+     * budget's cancellation token is cancelled or the calling thread interrupted.
+     * The budget is checked as the search assigns meetings, reaches dead ends and
+     * revises arcs, and shared by the searches of every component.
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times (unary and binary for this assignment)
+     * @param options Settings for the algorithms the solver uses
+     * @param budget Limits on the time, assignments and dead ends the search may spend
+     * @return SOLVED with a solution, UNSAT if there is none, or TIMEOUT (CANCELLED) with
+     *         the deepest consistent partial assignment reached when the budget ran out
+     *         (the solve was cancelled)
+     */
+    public static SolveResult solve (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, SolverOptions options, Budget budget) {
+    	Meter meter = new Meter(budget);
+    	List<LocalDate> solution = solveMetered(nMeetings, rangeStart, rangeEnd, constraints, options, meter);
+    	if (solution == null) {
+    		return new SolveResult(SolveResult.Status.UNSAT, null);
+    	}
+    	if (!solution.contains(null)) {
+    		return new SolveResult(SolveResult.Status.SOLVED, solution);
+    	}
+    	return new SolveResult(meter.cancelled() ? SolveResult.Status.CANCELLED : SolveResult.Status.TIMEOUT, solution);
+    }
+    
+    /**
+     * Solves the CSP as solve does, charging its searches to the given meter.
+     * 
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times
+     * @param options Settings for the algorithms the solver uses
+     * @param meter The meter that stops the searches once expired, or null for none
+     * @return A list of dates indexed by meeting satisfying every constraint, null if none
+     *         exists, or once the meter stops the search a partial one, with null dates
+     */
+    private static List<LocalDate> solveMetered (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, SolverOptions options, Meter meter) {
+    	if (options.mergeEqualities) {
+    		EqualityClasses classes = new EqualityClasses(nMeetings, constraints);
+    		if (!classes.isConsistent()) {
+    			return null;
+    		}
+    		if (classes.size() < nMeetings) {
+    			List<LocalDate> merged = solveComponents(classes.size(), rangeStart, rangeEnd, classes.constraints(), options, meter);
+    			return (merged == null) ? null : classes.expand(merged);
+    		}
+    	}
+    	return solveComponents(nMeetings, rangeStart, rangeEnd, constraints, options, meter);
+    }
+    
+    /**
+     * Lazily enumerates every solution of the CSP specified as for solve, using
+     * the default solver options. Each solution is only searched for once the
+     * stream is asked for it, by resuming the search from the previous one.
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times (unary and binary for this assignment)
+     * @return A sequential Stream of every distinct solution, each a list of dates indexed by meeting
+     */
+    public static Stream<List<LocalDate>> solutions (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints) {
+    	return solutions(nMeetings, rangeStart, rangeEnd, constraints, new SolverOptions());
+    }
+    
+    /**
+     * Lazily enumerates every solution of the CSP as solutions(nMeetings, rangeStart,
+     * rangeEnd, constraints) does, but with the given solver options. Since every
+     * solution must be visited, the search backtracks chronologically whatever the
+     * backjumping, nogood learning and restart settings, and components are
+     * enumerated one after the other.
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times (unary and binary for this assignment)
+     * @param options Settings for the algorithms the solver uses
+     * @return A sequential Stream of every distinct solution, each a list of dates indexed by meeting
+     */
+    public static Stream<List<LocalDate>> solutions (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, SolverOptions options) {
+    	SolverOptions exhaustive = exhaustive(options);
+    	Iterator<List<LocalDate>> solutions;
+    	if (options.mergeEqualities) {
+    		EqualityClasses classes = new EqualityClasses(nMeetings, constraints);
+    		if (!classes.isConsistent()) {
+    			return Stream.empty();
+    		}
+    		if (classes.size() < nMeetings) {
+    			solutions = enumerateComponents(classes.size(), rangeStart, rangeEnd, classes.constraints(), exhaustive);
+    			return stream(solutions).map(classes::expand);
+    		}
+    	}
+    	return stream(enumerateComponents(nMeetings, rangeStart, rangeEnd, constraints, exhaustive));
+    }
+    
+    /**
+     * Enumerates the solutions of the given problem as the cartesian product of
+     * those of the connected components of its constraint graph.
+     * 
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times
+     * @param options Settings for the algorithms the solver uses
+     * @return An iterator over every solution, each a list of dates indexed by meeting
+     */
+    private static Iterator<List<LocalDate>> enumerateComponents (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, SolverOptions options) {
+    	Components components = options.decompose ? new Components(nMeetings, constraints) : null;
+    	if (components == null || components.size() <= 1) {
+    		return new SolutionIterator(searchMeetings(nMeetings, rangeStart, rangeEnd, constraints, options));
+    	}
+    	ComponentProduct product = new ComponentProduct(components.size(), c -> new SolutionIterator(
+    		searchMeetings(components.size(c), rangeStart, rangeEnd, components.constraints(c), options)
+    	));
+    	return stream(product).map(components::merge).iterator();
+    }
+    
+    /**
+     * Filters the domains of the given problem, as solveMeetings does but without
+     * taking the earliest schedule of its temporal network as the only solution,
+     * and prepares a search over them.
+     * 
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times
+     * @param options Settings for the algorithms the solver uses
+     * @return The search over the filtered domains, or null if filtering found there is no solution
+     */
+    private static BacktrackSearch searchMeetings (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, SolverOptions options) {
+    	List<MeetingDomain> domains = generateDomains(nMeetings, rangeStart, rangeEnd, domainKind(constraints));
+    	ConstraintIndex index = new ConstraintIndex(nMeetings, constraints);
     	nodeConsistency(domains, constraints);
-    	arcConsistency(domains, constraints);
-    	return recursiveBT(assignment, nMeetings, constraints, domains);
+    	if (options.temporalNetwork && !new TemporalNetwork(index, domains).tighten()) {
+    		return null;
+    	}
+    	if (!new ArcPropagator(index, domains, options.propagation).propagateAll(true)) {
+    		return null;
+    	}
+    	return new BacktrackSearch(index, domains, options);
     }
     
     /**
-     * Recursively backtracks through our meeting domains and prunes inconsistent ones.
+     * @param iterator An iterator
+     * @return A sequential, ordered Stream of the iterator's elements, pulled from it lazily
+     */
+    private static <T> Stream<T> stream (Iterator<T> iterator) {
+    	return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+    /**
+     * Counts the solutions of the CSP specified as for solve, using the default
+     * solver options, without building any of them.
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times (unary and binary for this assignment)
+     * @return The number of distinct solutions, or Long.MAX_VALUE if there are more than that
+     */
+    public static long countSolutions (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints) {
+    	return countSolutions(nMeetings, rangeStart, rangeEnd, constraints, new SolverOptions());
+    }
+    
+    /**
+     * Counts the solutions of the CSP as countSolutions(nMeetings, rangeStart, rangeEnd,
+     * constraints) does, but with the given solver options. The count of a problem is
+     * the product of the counts of its components, and each component's search caches
+     * the count of every residual subproblem it finishes, so that identical ones are
+     * only counted once. The search backtracks chronologically as for solutions, and
+     * filters domains with forward checking if the options ask for plain backtracking.
+     * It assigns meetings in index order, which within a component is breadth-first
+     * order: the assigned meetings then stay connected, and residual subproblems only
+     * differ by the domains along their frontier, so that they recur often.
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times (unary and binary for this assignment)
+     * @param options Settings for the algorithms the solver uses
+     * @return The number of distinct solutions, or Long.MAX_VALUE if there are more than that
+     */
+    public static long countSolutions (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, SolverOptions options) {
+    	SolverOptions counting = exhaustive(options);
+    	if (counting.search == SolverOptions.Search.BACKTRACKING) {
+    		counting.search = SolverOptions.Search.FORWARD_CHECKING;
+    	}
+    	counting.variableOrder = SolverOptions.VariableOrder.INDEX;
+    	if (options.mergeEqualities) {
+    		EqualityClasses classes = new EqualityClasses(nMeetings, constraints);
+    		if (!classes.isConsistent()) {
+    			return 0;
+    		}
+    		if (classes.size() < nMeetings) {
+    			return countComponents(classes.size(), rangeStart, rangeEnd, classes.constraints(), counting);
+    		}
+    	}
+    	return countComponents(nMeetings, rangeStart, rangeEnd, constraints, counting);
+    }
+    
+    /**
+     * Counts the solutions of the given problem as the product of the counts of
+     * the connected components of its constraint graph.
      * 
-     * @param assignment A list of local dates which we assign meetings to
      * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
-     * @param dc Date constraints on the meeting times (unary and binary for this assignment)
-     * @param domains A list of meeting domains
-     * @return A list of local dates which are assigned meetings
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times
+     * @param options Settings for the algorithms the solver uses
+     * @return The number of solutions, or Long.MAX_VALUE if there are more than that
      */
-	private static List<LocalDate> recursiveBT(List<LocalDate> assignment, int nMeetings, Set<DateConstraint> dc, List<MeetingDomain> domains) {
-		if (consistent(dc, assignment) && assignment.size() == nMeetings) {
-			return assignment;
-		}
-		if (consistent(dc, assignment)) {
-			for (LocalDate d : domains.get(assignment.size()).domainValues) {
-				if (consistent(dc, assignment) && assignment.size() < domains.size()) {
-					assignment.add(d);
-					if (recursiveBT(assignment, nMeetings, dc, domains) != null) {
-						assignment = recursiveBT(assignment, nMeetings, dc, domains);
-						if (assignment.size() == nMeetings && consistent(dc, assignment)) {
-							return assignment;
-						}
-					}
-					assignment.remove(assignment.size()-1);
-				}
-			}
-		}
-		return null;
-	}
+    private static long countComponents (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, SolverOptions options) {
+    	Components components = options.decompose ? new Components(nMeetings, constraints) : null;
+    	if (components == null || components.size() <= 1) {
+    		BacktrackSearch search = searchMeetings(nMeetings, rangeStart, rangeEnd, constraints, options);
+    		return (search == null) ? 0 : search.count();
+    	}
+    	long product = 1;
+    	for (int c = 0; c < components.size() && product > 0; c++) {
+    		BacktrackSearch search = searchMeetings(components.size(c), rangeStart, rangeEnd, components.constraints(c), options);
+    		long count = (search == null) ? 0 : search.count();
+    		product = (count != 0 && product > Long.MAX_VALUE / count) ? Long.MAX_VALUE : product * count;
+    	}
+    	return product;
+    }
+    
+    /**
+     * @param options Settings for the algorithms the solver uses
+     * @return A copy of the options whose search visits every solution, backtracking
+     *         chronologically without nogood learning or restarts
+     */
+    private static SolverOptions exhaustive (SolverOptions options) {
+    	SolverOptions exhaustive = new SolverOptions(options);
+    	exhaustive.backjumping = false;
+    	exhaustive.learnNogoods = false;
+    	exhaustive.restarts = SolverOptions.Restarts.NONE;
+    	return exhaustive;
+    }
+    
     /**
-     * Determines whether not our local dates are consistent with our constraints
+     * Finds a solution of the CSP specified as for solve that minimizes the given
+     * objective, using the default solver options.
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
      * @param constraints Date constraints on the meeting times (unary and binary for this assignment)
-     * @param ld A list of local dates
-     * @return boolean: true if our set of local dates is consistent with the given constraints
+     * @param objective The cost of a schedule, to be minimized
+     * @return A list of dates of least cost satisfying every constraint, or null if none exists
      */
-	private static boolean consistent(Set<DateConstraint> constraints, List<LocalDate> ld) {
-		for (DateConstraint dc : constraints) {
-			if (dc.ARITY == 1) {
-				UnaryDateConstraint uc = (UnaryDateConstraint) dc;
-				if ((uc.L_VAL < ld.size())) {
-					if (!dc.isSatisfiedBy(ld.get(dc.L_VAL), ((UnaryDateConstraint) dc).R_VAL)) {
-						return false;
-					}
-				}
-			} else {
-				BinaryDateConstraint bc = (BinaryDateConstraint) dc;
-				if (bc.R_VAL < ld.size() && bc.L_VAL < ld.size()) {
-					if (!dc.isSatisfiedBy(ld.get(dc.L_VAL), ld.get(bc.R_VAL))) {
-						return false;
-					}
-				}
-			}
+    public static List<LocalDate> optimize (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, Objective objective) {
+    	return optimize(nMeetings, rangeStart, rangeEnd, constraints, objective, new SolverOptions());
+    }
+    
+    /**
+     * Finds a solution of the CSP minimizing the objective, as optimize(nMeetings,
+     * rangeStart, rangeEnd, constraints, objective) does, but with the given solver
+     * options. A single branch and bound search keeps the best solution found so far,
+     * and abandons any partial assignment whose domains bound the objective at no
+     * less than its cost. The search backtracks chronologically as for solutions, and
+     * the problem is not decomposed, since the objective ties its components together.
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times (unary and binary for this assignment)
+     * @param objective The cost of a schedule, to be minimized
+     * @param options Settings for the algorithms the solver uses
+     * @return A list of dates of least cost satisfying every constraint, or null if none exists
+     */
+    public static List<LocalDate> optimize (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, Objective objective, SolverOptions options) {
+    	SolverOptions optimizing = exhaustive(options);
+    	if (options.mergeEqualities) {
+    		EqualityClasses classes = new EqualityClasses(nMeetings, constraints);
+    		if (!classes.isConsistent()) {
+    			return null;
+    		}
+    		if (classes.size() < nMeetings) {
+    			// Every meeting of a class takes its date, so the classes' ranges bound the meetings'
+    			Objective merged = new Objective() {
+    				@Override
+    				public long cost (long[] days) {
+    					return objective.cost(classes.expand(days));
+    				}
+    				
+    				@Override
+    				public long lowerBound (long[] earliest, long[] latest) {
+    					return objective.lowerBound(classes.expand(earliest), classes.expand(latest));
+    				}
+    			};
+    			BacktrackSearch search = searchMeetings(classes.size(), rangeStart, rangeEnd, classes.constraints(), optimizing);
+    			long[] best = (search == null) ? null : search.optimize(merged);
+    			return (best == null) ? null : toDates(classes.expand(best));
+    		}
+    	}
+    	BacktrackSearch search = searchMeetings(nMeetings, rangeStart, rangeEnd, constraints, optimizing);
+    	long[] best = (search == null) ? null : search.optimize(objective);
+    	return (best == null) ? null : toDates(best);
+    }
+    
+    /**
+     * Splits the given problem into the connected components of its constraint graph,
+     * solves each of them on its own (in parallel if the options say so) and merges
+     * their solutions.
+     * 
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times
+     * @param options Settings for the algorithms the solver uses
+     * @param meter The meter that stops the search once expired, or null for none
+     * @return A list of dates indexed by meeting satisfying every constraint, null if none
+     *         exists, or once the meter stops the search a partial one, with null dates
+     */
+    private static List<LocalDate> solveComponents (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, SolverOptions options, Meter meter) {
+    	if (!options.decompose) {
+    		return solveMeetings(nMeetings, rangeStart, rangeEnd, constraints, options, meter);
+    	}
+    	Components components = new Components(nMeetings, constraints);
+    	if (components.size() <= 1) {
+    		return solveMeetings(nMeetings, rangeStart, rangeEnd, constraints, options, meter);
+    	}
+    	AtomicBoolean failed = new AtomicBoolean();
+    	IntStream ids = IntStream.range(0, components.size());
+    	if (options.parallelComponents) {
+    		ids = ids.parallel();
+    	}
+    	List<List<LocalDate>> parts = ids.mapToObj(c -> {
+    		if (failed.get()) {
+    			return null;
+    		}
+    		List<LocalDate> part = solveMeetings(components.size(c), rangeStart, rangeEnd, components.constraints(c), options, meter);
+    		if (part == null) {
+    			failed.set(true);
+    		}
+    		return part;
+    	}).collect(Collectors.toList());
+    	return failed.get() ? null : components.merge(parts);
+    }
+    
+    /**
+     * Filters the domains of the given problem and searches them for a solution.
+     * 
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times
+     * @param options Settings for the algorithms the solver uses
+     * @param meter The meter that stops the search once expired, or null for none
+     * @return A list of dates indexed by meeting satisfying every constraint, null if none
+     *         exists, or once the meter stops the search a partial one, with null dates
+     */
+    private static List<LocalDate> solveMeetings (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, SolverOptions options, Meter meter) {
+    	List<MeetingDomain> domains = generateDomains(nMeetings, rangeStart, rangeEnd, domainKind(constraints));
+    	ConstraintIndex index = new ConstraintIndex(nMeetings, constraints);
+    	nodeConsistency(domains, constraints);
+    	if (options.temporalNetwork) {
+    		TemporalNetwork stn = new TemporalNetwork(index, domains);
+    		if (!stn.tighten()) {
+    			return null;
+    		}
+    		// Only shortcut the search with the schedule its value order favors, earliest or latest dates first
+    		long[] bound = (options.valueOrder == SolverOptions.ValueOrder.ASCENDING) ? stn.earliestSchedule()
+    		             : (options.valueOrder == SolverOptions.ValueOrder.DESCENDING) ? stn.latestSchedule()
+    		             : null;
+    		if (bound != null) {
+    			return toDates(bound);
+    		}
+    	}
+    	ArcPropagator propagator = new ArcPropagator(index, domains, options.propagation);
+    	propagator.setMeter(meter);
+    	// Without a wipeout, propagation was stopped by the meter, and so is the search
+    	// before its first assignment
+    	if (!propagator.propagateAll(true) && propagator.lastWipeout() != null) {
+    		return null;
+    	}
+    	BacktrackSearch search = new BacktrackSearch(index, domains, options);
+    	search.setMeter(meter);
+    	long[] days = search.solve();
+    	if (days == null) {
+    		days = search.partial();
+    	}
+    	return (days == null) ? null : toDates(days);
+    }
+    
+	/**
+	 * Converts an assignment of epoch days into the solution format of solve.
+	 * 
+	 * @param days The epoch day assigned to each meeting, or NONE if it is unassigned
+	 * @return A list of local dates indexed by meeting, null for each unassigned one
+	 */
+	static List<LocalDate> toDates(long[] days) {
+		List<LocalDate> dates = new ArrayList<>(days.length);
+		for (long d : days) {
+			dates.add((d == EpochDaySet.NONE) ? null : LocalDate.ofEpochDay(d));
 		}
-		return true;
+		return dates;
 	}
 
     /**
@@ -100,16 +454,33 @@ public class CSPSolver {
      * @param n Number of meeting variables in this CSP.
      * @param startRange Start date for the range of each variable's domain.
      * @param endRange End date for the range of each variable's domain.
+     * @param kind The representation to store each domain's values with.
      * @return The List of Meeting-indexed MeetingDomains.
      */
-    private static List<MeetingDomain> generateDomains (int n, LocalDate startRange, LocalDate endRange) {
+    private static List<MeetingDomain> generateDomains (int n, LocalDate startRange, LocalDate endRange, MeetingDomain.Kind kind) {
         List<MeetingDomain> domains = new ArrayList<>();
         while (n > 0) {
-            domains.add(new MeetingDomain(startRange, endRange));
+            domains.add(new MeetingDomain(startRange, endRange, kind));
             n--;
         }
         return domains;
     }
+    
+    /**
+     * Chooses the domain representation for a problem: only != constraints punch
+     * holes into the middle of a domain, so without them every domain stays a
+     * single interval and is cheapest to store as one.
+     * @param constraints The constraints of the problem.
+     * @return INTERVALS if no constraint uses !=, BITSET otherwise.
+     */
+    private static MeetingDomain.Kind domainKind (Set<DateConstraint> constraints) {
+        for (DateConstraint c : constraints) {
+            if (c.OPERATOR == DateConstraint.Operator.NE) {
+                return MeetingDomain.Kind.BITSET;
+            }
+        }
+        return MeetingDomain.Kind.INTERVALS;
+    }
 
     // Filtering Operations
     // --------------------------------------------------------------------------------------------------------------
@@ -128,15 +499,7 @@ public class CSPSolver {
 				continue;
 			} else {
 				UnaryDateConstraint uc = (UnaryDateConstraint) c;
-				MeetingDomain domain = varDomains.get(uc.L_VAL);
-				Set<LocalDate> dom = domain.domainValues;
-				Set<LocalDate> domainCopy = new HashSet<>(dom);
-				for (LocalDate ld : dom) {
-					if (!uc.isSatisfiedBy(ld, uc.R_VAL)) {
-						domainCopy.remove(ld);
-					}
-				}
-				domain.domainValues = domainCopy;
+				varDomains.get(uc.L_VAL).days().restrict(uc.OPERATOR, uc.R_DAY);
 			}
 		}
 	}
@@ -146,132 +509,23 @@ public class CSPSolver {
      * the given constraints. Meetings' domains correspond to their index in the varDomains List.
      * @param varDomains List of MeetingDomains in which index i corresponds to D_i
      * @param constraints Set of DateConstraints specifying how the domains should be constrained.
-     * [!] Note, these may be either unary or binary constraints, but this method should only process
-     *     the *binary* constraints using the AC-3 algorithm! 
+     * [!] Note, these may be either unary or binary constraints, but this method only processes
+     *     the *binary* constraints, with the default propagation mode (BOUNDS). Use
+     *     arcConsistency(varDomains, constraints, propagation) for AC3 or AC2001.
      */
     public static void arcConsistency (List<MeetingDomain> varDomains, Set<DateConstraint> constraints) {
-    	Set<Arc> arcSet = arcMaker(constraints);
-    	Set<Arc> arcSetCopy = new HashSet<>(arcSet);
-    	ac3(varDomains, constraints, arcSet, arcSetCopy);
+    	arcConsistency(varDomains, constraints, new SolverOptions().propagation);
     }
     
-    
     /**
-     * Arc-Consistency 3 Function we learned about
-     * 
+     * Enforces arc consistency as arcConsistency(varDomains, constraints) does,
+     * using the given arc consistency algorithm.
      * @param varDomains List of MeetingDomains in which index i corresponds to D_i
      * @param constraints Set of DateConstraints specifying how the domains should be constrained.
-     * @param arcSet The arcs we are checking 
-     * @param arcSetCopy A copy of our arc set
+     * @param propagation The arc consistency algorithm to use
      */
-    private static void ac3 (List<MeetingDomain> varDomains, Set<DateConstraint> constraints, Set<Arc> arcSet, Set<Arc> arcSetCopy) {
-    	while(arcSet.size() != 0) {
-    		Arc curArc = arcSet.iterator().next();
-    		arcSet.remove(curArc);
-    		if(pruner(varDomains, curArc)) {
-    			for(Arc a : arcSetCopy) {
-    				if(curArc.TAIL == a.HEAD) {
-    					arcSet.add(a);
-    				}
-    			}
-    		}
-    	}
-    }
-    
-     /**
-     * Prunes inconsistent values for binary constraints.
-     * 
-     * @param md Our list of Meeting Domains
-     * @param curArc The current arc we are examining
-     * @return boolean: true if a value is pruned from the tail domain
-     */
-	private static boolean pruner(List<MeetingDomain> md, Arc curArc) {
-		boolean removed = false;
-		MeetingDomain tailDomain = md.get(curArc.TAIL);
-		MeetingDomain headDomain = md.get(curArc.HEAD);
-		Set<LocalDate> dateCopy = new HashSet<>(tailDomain.domainValues);
-		for (LocalDate tailDate : tailDomain.domainValues) {
-			boolean satisfied = false;
-			for (LocalDate headDate : headDomain.domainValues) {
-				if (curArc.CONSTRAINT.isSatisfiedBy(tailDate, headDate)) {
-					satisfied = true;
-				}
-			}
-			if(satisfied == false) {
-				removed = true;
-				dateCopy.remove(tailDate);
-			}
-		}
-		tailDomain.domainValues = dateCopy;
-		return removed;
-	}
-	
-	/**
-	 * Creates arcs and adds them into an set.
-	 * 
-     * @param dc Set of DateConstraints specifying how the domains should be constrained.
-	 * @return a set of arcs
-	 */
-	private static Set<Arc> arcMaker(Set<DateConstraint> dc){
-    	Set<Arc> arcSet = new HashSet<>();
-    	for(DateConstraint c : dc) {
-    		if(c.ARITY == 1) {
-    			continue;
-    		}
-    		BinaryDateConstraint bc = (BinaryDateConstraint) c;
-    		Arc forwardArc = new Arc(bc.L_VAL, bc.R_VAL , bc);
-    		Arc backwardArc = new Arc(bc.R_VAL, bc.L_VAL , bc.getReverse());
-   			arcSet.add(forwardArc);	
-   			arcSet.add(backwardArc);
-    	}
-    	return arcSet;
-	}
-    
-    /**
-     * Private helper class organizing Arcs as defined by the AC-3 algorithm, useful for implementing the
-     * arcConsistency method.
-     * [!] You may modify this class however you'd like, its basis is just a suggestion that will indeed work.
-     */
-    private static class Arc {
-        
-        public final DateConstraint CONSTRAINT;
-        public final int TAIL, HEAD;
-        
-        /**
-         * Constructs a new Arc (tail -> head) where head and tail are the meeting indexes
-         * corresponding with Meeting variables and their associated domains.
-         * @param tail Meeting index of the tail
-         * @param head Meeting index of the head
-         * @param c Constraint represented by this Arc.
-         * [!] WARNING: A DateConstraint's isSatisfiedBy method is parameterized as:
-         * isSatisfiedBy (LocalDate leftDate, LocalDate rightDate), meaning L_VAL for the first
-         * parameter and R_VAL for the second. Be careful with this when creating Arcs that reverse
-         * direction. You may find the BinaryDateConstraint's getReverse method useful here.
-         */
-        public Arc (int tail, int head, DateConstraint c) {
-            this.TAIL = tail;
-            this.HEAD = head;
-            this.CONSTRAINT = c;
-        }
-        
-        @Override
-        public boolean equals (Object other) {
-            if (this == other) { return true; }
-            if (this.getClass() != other.getClass()) { return false; }
-            Arc otherArc = (Arc) other;
-            return this.TAIL == otherArc.TAIL && this.HEAD == otherArc.HEAD && this.CONSTRAINT.equals(otherArc.CONSTRAINT);
-        }
-        
-        @Override
-        public int hashCode () {
-            return Objects.hash(this.TAIL, this.HEAD, this.CONSTRAINT);
-        }
-        
-        @Override
-        public String toString () {
-            return "(" + this.TAIL + " -> " + this.HEAD + ")";
-        }
-        
+    public static void arcConsistency (List<MeetingDomain> varDomains, Set<DateConstraint> constraints, SolverOptions.Propagation propagation) {
+    	new ArcPropagator(new ConstraintIndex(varDomains.size(), constraints), varDomains, propagation).propagateAll(false);
     }
     
 }
@@ -0,0 +1,45 @@
+package main.csp;
+
+/**
+ * Flag through which a caller can stop a budgeted solve running on another
+ * thread. The solver polls the token along with the rest of its Budget, so a
+ * solve stops shortly after cancel is called, and reports CANCELLED with the
+ * deepest partial assignment it reached. A token stays cancelled once it is,
+ * and may be shared by several solves, to stop all of them at once. A token
+ * made from a parent is also cancelled whenever its parent is.
+ */
+public class CancellationToken {
+    
+    private final CancellationToken parent;
+    private volatile boolean cancelled;
+    
+    /**
+     * Creates a new CancellationToken, not yet cancelled.
+     */
+    public CancellationToken () {
+        this(null);
+    }
+    
+    /**
+     * Creates a new CancellationToken, cancelled once either it or its parent is.
+     * @param parent The token whose cancellation this one follows, or null for none
+     */
+    public CancellationToken (CancellationToken parent) {
+        this.parent = parent;
+    }
+    
+    /**
+     * Asks every solve holding this token to stop.
+     */
+    public void cancel () {
+        this.cancelled = true;
+    }
+    
+    /**
+     * @return Whether cancel has been called on this token or its parent
+     */
+    public boolean isCancelled () {
+        return this.cancelled || (this.parent != null && this.parent.isCancelled());
+    }
+    
+}
@@ -0,0 +1,67 @@
+package main.csp;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Iterator over the cartesian product of the solutions of independent
+ * components, in the manner of an odometer: the last component's solutions
+ * vary fastest, and whenever a component runs out of solutions its
+ * enumeration is started over while the one before it moves on. No
+ * component's solutions are ever held in memory beyond the current one.
+ */
+class ComponentProduct implements Iterator<List<List<LocalDate>>> {
+    
+    private final IntFunction<Iterator<List<LocalDate>>> solutions;
+    private final List<Iterator<List<LocalDate>>> iterators = new ArrayList<>();
+    private final List<List<LocalDate>> current = new ArrayList<>();
+    private boolean ready, done;
+    
+    /**
+     * Creates a new ComponentProduct over the given number of components.
+     * @param size The number of components
+     * @param solutions Starts a new enumeration of the solutions of the given component,
+     *        which must produce the same solutions every time
+     */
+    ComponentProduct (int size, IntFunction<Iterator<List<LocalDate>>> solutions) {
+        this.solutions = solutions;
+        for (int c = 0; c < size; c++) {
+            Iterator<List<LocalDate>> it = solutions.apply(c);
+            if (!it.hasNext()) {
+                this.done = true;
+                return;
+            }
+            this.iterators.add(it);
+            this.current.add(it.next());
+        }
+        this.ready = true;
+    }
+    
+    @Override
+    public boolean hasNext () {
+        if (this.ready || this.done) { return this.ready; }
+        for (int c = this.iterators.size() - 1; c >= 0; c--) {
+            if (this.iterators.get(c).hasNext()) {
+                this.current.set(c, this.iterators.get(c).next());
+                for (int k = c + 1; k < this.iterators.size(); k++) {
+                    Iterator<List<LocalDate>> it = this.solutions.apply(k);
+                    this.iterators.set(k, it);
+                    this.current.set(k, it.next());
+                }
+                this.ready = true;
+                return true;
+            }
+        }
+        this.done = true;
+        return false;
+    }
+    
+    @Override
+    public List<List<LocalDate>> next () {
+        if (!this.hasNext()) { throw new NoSuchElementException(); }
+        this.ready = false;
+        return new ArrayList<>(this.current);
+    }
+
+}
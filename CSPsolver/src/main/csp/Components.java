@@ -0,0 +1,110 @@
+package main.csp;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Decomposition of a problem into the connected components of its binary
+ * constraint graph. Meetings of different components share no constraint, so
+ * each component is an independent sub-problem over its own, locally indexed
+ * meetings, and the solutions of the components together form a solution of
+ * the whole problem.
+ */
+class Components {
+    
+    private final int[] componentOf, localIndex;
+    private final List<List<Integer>> members = new ArrayList<>();
+    private final List<Set<DateConstraint>> constraints = new ArrayList<>();
+    
+    /**
+     * Splits the given problem into its connected components.
+     * @param nMeetings The number of meetings, indexed from 0 to n-1
+     * @param constraints The constraints of the problem
+     */
+    Components (int nMeetings, Set<DateConstraint> constraints) {
+        List<List<Integer>> neighbors = new ArrayList<>();
+        for (int i = 0; i < nMeetings; i++) {
+            neighbors.add(new ArrayList<>());
+        }
+        for (DateConstraint c : constraints) {
+            if (c.ARITY == 2) {
+                int r = ((BinaryDateConstraint) c).R_VAL;
+                neighbors.get(c.L_VAL).add(r);
+                neighbors.get(r).add(c.L_VAL);
+            }
+        }
+        
+        // Breadth-first search from each meeting not yet in a component
+        this.componentOf = new int[nMeetings];
+        this.localIndex = new int[nMeetings];
+        Arrays.fill(this.componentOf, -1);
+        Deque<Integer> frontier = new ArrayDeque<>();
+        for (int start = 0; start < nMeetings; start++) {
+            if (this.componentOf[start] >= 0) { continue; }
+            int component = this.members.size();
+            List<Integer> members = new ArrayList<>();
+            this.members.add(members);
+            this.constraints.add(new HashSet<>());
+            this.componentOf[start] = component;
+            frontier.add(start);
+            while (!frontier.isEmpty()) {
+                int meeting = frontier.poll();
+                this.localIndex[meeting] = members.size();
+                members.add(meeting);
+                for (int next : neighbors.get(meeting)) {
+                    if (this.componentOf[next] < 0) {
+                        this.componentOf[next] = component;
+                        frontier.add(next);
+                    }
+                }
+            }
+        }
+        
+        for (DateConstraint c : constraints) {
+            Set<DateConstraint> local = this.constraints.get(this.componentOf[c.L_VAL]);
+            int l = this.localIndex[c.L_VAL];
+            if (c.ARITY == 1) {
+                local.add(new UnaryDateConstraint(l, c.OP, ((UnaryDateConstraint) c).R_VAL));
+            } else {
+                local.add(new BinaryDateConstraint(l, c.OP, this.localIndex[((BinaryDateConstraint) c).R_VAL]));
+            }
+        }
+    }
+    
+    /**
+     * @return The number of components.
+     */
+    int size () {
+        return this.members.size();
+    }
+    
+    /**
+     * @param component A component index
+     * @return The number of meetings in the component.
+     */
+    int size (int component) {
+        return this.members.get(component).size();
+    }
+    
+    /**
+     * @param component A component index
+     * @return The constraints of the component, over its local meeting indexes.
+     */
+    Set<DateConstraint> constraints (int component) {
+        return this.constraints.get(component);
+    }
+    
+    /**
+     * Combines the solutions of every component into one of the whole problem.
+     * @param parts The solution of each component, indexed by local meeting index
+     * @return The date of each meeting of the whole problem
+     */
+    List<LocalDate> merge (List<List<LocalDate>> parts) {
+        List<LocalDate> dates = new ArrayList<>(this.componentOf.length);
+        for (int i = 0; i < this.componentOf.length; i++) {
+            dates.add(parts.get(this.componentOf[i]).get(this.localIndex[i]));
+        }
+        return dates;
+    }
+    
+}
@@ -0,0 +1,105 @@
+package main.csp;
+
+import java.util.*;
+
+/**
+ * Precompiled view of a problem's constraints, indexed by meeting: for each
+ * meeting variable, the unary constraints on it and the binary constraints
+ * incident to it. Binary constraints are stored oriented so that the indexed
+ * meeting is always their L_VAL, meaning a check only ever needs the
+ * meeting's own date and that of BINARY[v][i].R_VAL.
+ * 
+ * Each oriented binary constraint is also an Arc (tail = L_VAL, head = R_VAL)
+ * of the constraint graph, and the index keeps for each meeting the IDs of the
+ * arcs leaving it (OUTGOING, in the same order as BINARY) and pointing into it
+ * (INCOMING). The two arcs of the k-th binary constraint have IDs 2k and 2k + 1,
+ * so that (id >>> 1) identifies an arc's constraint and (id ^ 1) its reverse.
+ */
+class ConstraintIndex {
+    
+    final int N;
+    final UnaryDateConstraint[][] UNARY;
+    final BinaryDateConstraint[][] BINARY;
+    final Arc[] ARCS;
+    final int[][] OUTGOING, INCOMING;
+    
+    /**
+     * Builds the index of the given constraints over nMeetings meeting variables.
+     * @param nMeetings The number of meetings, indexed from 0 to n-1
+     * @param constraints The constraints to index.
+     */
+    ConstraintIndex (int nMeetings, Set<DateConstraint> constraints) {
+        List<List<UnaryDateConstraint>> unary = new ArrayList<>();
+        List<List<BinaryDateConstraint>> binary = new ArrayList<>();
+        List<List<Integer>> outgoing = new ArrayList<>();
+        for (int i = 0; i < nMeetings; i++) {
+            unary.add(new ArrayList<>());
+            binary.add(new ArrayList<>());
+            outgoing.add(new ArrayList<>());
+        }
+        List<Arc> arcs = new ArrayList<>();
+        for (DateConstraint c : constraints) {
+            if (c.ARITY == 1) {
+                unary.get(c.L_VAL).add((UnaryDateConstraint) c);
+            } else {
+                BinaryDateConstraint bc = (BinaryDateConstraint) c;
+                for (BinaryDateConstraint oriented : Arrays.asList(bc, bc.getReverse())) {
+                    binary.get(oriented.L_VAL).add(oriented);
+                    outgoing.get(oriented.L_VAL).add(arcs.size());
+                    arcs.add(new Arc(arcs.size(), oriented.L_VAL, oriented.R_VAL, oriented));
+                }
+            }
+        }
+        
+        this.N = nMeetings;
+        this.UNARY = new UnaryDateConstraint[nMeetings][];
+        this.BINARY = new BinaryDateConstraint[nMeetings][];
+        this.OUTGOING = new int[nMeetings][];
+        for (int i = 0; i < nMeetings; i++) {
+            this.UNARY[i] = unary.get(i).toArray(new UnaryDateConstraint[0]);
+            this.BINARY[i] = binary.get(i).toArray(new BinaryDateConstraint[0]);
+            this.OUTGOING[i] = outgoing.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        
+        this.ARCS = arcs.toArray(new Arc[0]);
+        this.INCOMING = new int[nMeetings][];
+        for (int i = 0; i < nMeetings; i++) {
+            // Every arc into i is the reverse of one out of it
+            this.INCOMING[i] = new int[this.OUTGOING[i].length];
+            for (int j = 0; j < this.OUTGOING[i].length; j++) {
+                this.INCOMING[i][j] = this.OUTGOING[i][j] ^ 1;
+            }
+        }
+    }
+    
+    /**
+     * Finds a binary constraint violated by the date given to the meeting and that
+     * of another assigned meeting. Unary constraints are not checked, as they are
+     * enforced on the domains before any search.
+     * @param meeting The meeting that was just assigned.
+     * @param days The epoch day assigned to each meeting.
+     * @param assigned Whether or not each meeting is assigned.
+     * @return The ID of the violated constraint's arc out of the meeting, or -1 if
+     *         there is none.
+     */
+    int conflict (int meeting, long[] days, boolean[] assigned) {
+        long day = days[meeting];
+        BinaryDateConstraint[] incident = this.BINARY[meeting];
+        for (int j = 0; j < incident.length; j++) {
+            BinaryDateConstraint bc = incident[j];
+            if (assigned[bc.R_VAL] && !bc.isSatisfiedBy(day, days[bc.R_VAL])) {
+                return this.OUTGOING[meeting][j];
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * @param meeting A meeting index.
+     * @return The number of binary constraints incident to the meeting.
+     */
+    int degree (int meeting) {
+        return this.BINARY[meeting].length;
+    }
+
+}
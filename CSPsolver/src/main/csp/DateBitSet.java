@@ -0,0 +1,195 @@
+package main.csp;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * EpochDaySet backed by a long[] bitset, in which the bit at index i
+ * represents the date whose epoch day is (origin + i). Used as the value store
+ * for MeetingDomains so that a domain costs one bit per day instead of a boxed
+ * LocalDate and hash node, and so that the solver can filter domains in place
+ * with primitive epoch-day operations.
+ */
+public class DateBitSet extends EpochDaySet {
+    
+    private final long origin;
+    private final int span;
+    private final long[] words;
+    private int size;
+    
+    /**
+     * Creates a new DateBitSet containing every date between the given
+     * rangeStart and rangeEnd (inclusive). Only dates within that range
+     * may ever be members of this set.
+     * @param rangeStart The first date of the representable range.
+     * @param rangeEnd The last date of the representable range.
+     */
+    public DateBitSet (LocalDate rangeStart, LocalDate rangeEnd) {
+        long span = Math.max(0, rangeEnd.toEpochDay() - rangeStart.toEpochDay() + 1);
+        if (span > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Date range too large");
+        }
+        this.origin = rangeStart.toEpochDay();
+        this.span = (int) span;
+        this.words = new long[(this.span + 63) >>> 6];
+        Arrays.fill(this.words, -1L);
+        if ((this.span & 63) != 0) {
+            this.words[this.words.length - 1] = -1L >>> (64 - (this.span & 63));
+        }
+        this.size = this.span;
+    }
+    
+    /**
+     * Copy-constructor for a DateBitSet that initializes it with the same
+     * range and members as the other.
+     * @param other Other DateBitSet from which to make a copy.
+     */
+    public DateBitSet (DateBitSet other) {
+        this.origin = other.origin;
+        this.span = other.span;
+        this.words = other.words.clone();
+        this.size = other.size;
+    }
+    
+    @Override
+    public int cardinality () {
+        return this.size;
+    }
+    
+    @Override
+    public boolean containsDay (long day) {
+        long i = day - this.origin;
+        if (i < 0 || i >= this.span) { return false; }
+        return (this.words[(int) (i >>> 6)] & (1L << i)) != 0;
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the day lies outside of this set's range.
+     */
+    @Override
+    public boolean addDay (long day) {
+        long i = day - this.origin;
+        if (i < 0 || i >= this.span) {
+            throw new IllegalArgumentException("Date outside of domain range");
+        }
+        int w = (int) (i >>> 6);
+        long mask = 1L << i;
+        if ((this.words[w] & mask) != 0) { return false; }
+        this.words[w] |= mask;
+        this.size++;
+        return true;
+    }
+    
+    /**
+     * @throws IllegalArgumentException if the range is not within this set's range.
+     */
+    @Override
+    public int addRange (long lo, long hi) {
+        if (lo > hi) { return 0; }
+        if (lo < this.origin || hi - this.origin >= this.span) {
+            throw new IllegalArgumentException("Date outside of domain range");
+        }
+        int from = (int) (lo - this.origin), to = (int) (hi - this.origin);
+        int added = 0;
+        for (int w = from >>> 6; w <= to >>> 6; w++) {
+            long mask = -1L;
+            if (w == from >>> 6) { mask &= -1L << from; }
+            if (w == to >>> 6)   { mask &= -1L >>> (63 - (to & 63)); }
+            added += Long.bitCount(~this.words[w] & mask);
+            this.words[w] |= mask;
+        }
+        this.size += added;
+        return added;
+    }
+    
+    @Override
+    protected boolean deleteDay (long day) {
+        long i = day - this.origin;
+        if (i < 0 || i >= this.span) { return false; }
+        int w = (int) (i >>> 6);
+        long mask = 1L << i;
+        if ((this.words[w] & mask) == 0) { return false; }
+        this.words[w] &= ~mask;
+        this.size--;
+        return true;
+    }
+    
+    @Override
+    protected int deleteRange (long lo, long hi) {
+        if (lo <= this.origin) { lo = this.origin; }
+        if (hi >= this.origin + this.span - 1) { hi = this.origin + this.span - 1; }
+        if (lo > hi) { return 0; }
+        int from = (int) (lo - this.origin), to = (int) (hi - this.origin);
+        int removed = 0;
+        for (int w = from >>> 6; w <= to >>> 6; w++) {
+            long mask = -1L;
+            if (w == from >>> 6) { mask &= -1L << from; }
+            if (w == to >>> 6)   { mask &= -1L >>> (63 - (to & 63)); }
+            removed += Long.bitCount(this.words[w] & mask);
+            this.words[w] &= ~mask;
+        }
+        this.size -= removed;
+        return removed;
+    }
+    
+    @Override
+    public long firstDay () {
+        return this.nextDay(this.origin);
+    }
+    
+    @Override
+    public long lastDay () {
+        return this.prevDay(this.origin + this.span - 1);
+    }
+    
+    @Override
+    public long nextDay (long from) {
+        long i = (from <= this.origin) ? 0 : from - this.origin;
+        if (i >= this.span) { return NONE; }
+        int w = (int) (i >>> 6);
+        long word = this.words[w] & (-1L << i);
+        while (word == 0) {
+            if (++w == this.words.length) { return NONE; }
+            word = this.words[w];
+        }
+        return this.origin + ((long) w << 6) + Long.numberOfTrailingZeros(word);
+    }
+    
+    @Override
+    public long prevDay (long from) {
+        if (from < this.origin) { return NONE; }
+        long i = (from >= this.origin + this.span) ? this.span - 1 : from - this.origin;
+        if (i < 0) { return NONE; }
+        int w = (int) (i >>> 6);
+        long word = this.words[w] & (-1L >>> (63 - (i & 63)));
+        while (word == 0) {
+            if (--w < 0) { return NONE; }
+            word = this.words[w];
+        }
+        return this.origin + ((long) w << 6) + 63 - Long.numberOfLeadingZeros(word);
+    }
+    
+    @Override
+    public long runEnd (long day) {
+        long i = day - this.origin;
+        int w = (int) (i >>> 6);
+        long word = ~this.words[w] & (-1L << i);
+        while (word == 0) {
+            if (++w == this.words.length) { return this.origin + this.span - 1; }
+            word = ~this.words[w];
+        }
+        return this.origin + ((long) w << 6) + Long.numberOfTrailingZeros(word) - 1;
+    }
+    
+    @Override
+    public EpochDaySet copy () {
+        return new DateBitSet(this);
+    }
+    
+    @Override
+    protected void deleteAll () {
+        Arrays.fill(this.words, 0L);
+        this.size = 0;
+    }
+
+}
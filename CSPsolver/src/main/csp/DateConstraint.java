@@ -1,7 +1,6 @@
 package main.csp;
 
 import java.time.LocalDate;
-import java.util.*;
 
 /**
  * DateConstraint superclass: all date constraints will have
@@ -12,23 +11,84 @@ public abstract class DateConstraint {
 
     public final int L_VAL;
     public final String OP;
+    public final Operator OPERATOR;
     public final int ARITY;
     
-    private static final Set<String> LEGAL_OPS = new HashSet<>(
-        Arrays.asList("==", "!=", "<", "<=", ">", ">=")
-    );
+    /**
+     * The comparators a DateConstraint may use, compiled from their String
+     * form once so that checking a constraint is a primitive comparison of
+     * epoch days.
+     */
+    public enum Operator {
+        EQ("=="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+        
+        public final String SYMBOL;
+        
+        Operator (String symbol) {
+            this.SYMBOL = symbol;
+        }
+        
+        /**
+         * Returns the Operator written as the given symbol.
+         * @param symbol One of ==, !=, <, <=, >, >=
+         * @return The corresponding Operator.
+         */
+        public static Operator of (String symbol) {
+            for (Operator op : values()) {
+                if (op.SYMBOL.equals(symbol)) {
+                    return op;
+                }
+            }
+            throw new IllegalArgumentException("Invalid constraint operator");
+        }
+        
+        /**
+         * @param left The left epoch day
+         * @param right The right epoch day
+         * @return Whether or not left op right holds.
+         */
+        public boolean test (long left, long right) {
+            switch (this) {
+            case EQ: return left == right;
+            case NE: return left != right;
+            case LT: return left < right;
+            case LE: return left <= right;
+            case GT: return left > right;
+            default: return left >= right;
+            }
+        }
+        
+        /**
+         * @return Whether or not this is one of <, <=, >, >=, whose support
+         *         only ever depends on the bounds of the other side.
+         */
+        public boolean isOrdering () {
+            return this != EQ && this != NE;
+        }
+        
+        /**
+         * @return The operator that holds for (right, left) whenever this one holds for (left, right).
+         */
+        public Operator symmetric () {
+            switch (this) {
+            case LT: return GT;
+            case GT: return LT;
+            case LE: return GE;
+            case GE: return LE;
+            default: return this;
+            }
+        }
+    }
     
     /**
      * Constructs a new DateConstraint object with the given lVal,
      * operator, and arity.
      * @param lVal The index of the meeting variable corresponding to this constraint.
-     * @param operator The comparator from amongst those in LEGAL_OPS
+     * @param operator The symbol of one of the comparators of DateConstraint.Operator
      * @param arity The arity of the constraint (1 for unary, 2 for binary)
      */
     public DateConstraint (int lVal, String operator, int arity) {
-        if (!LEGAL_OPS.contains(operator)) {
-            throw new IllegalArgumentException("Invalid constraint operator");
-        }
+        this.OPERATOR = Operator.of(operator);
         if (lVal < 0) {
             throw new IllegalArgumentException("Invalid variable index");
         }
@@ -46,15 +106,18 @@ public abstract class DateConstraint {
      * @return Whether or not the constraint is satisfied with the given dates.
      */
     public boolean isSatisfiedBy (LocalDate leftDate, LocalDate rightDate) {
-        switch (this.OP) {
-        case "==": return leftDate.isEqual(rightDate);
-        case "!=": return !leftDate.isEqual(rightDate);
-        case ">":  return leftDate.isAfter(rightDate);
-        case "<":  return leftDate.isBefore(rightDate);
-        case ">=": return leftDate.isAfter(rightDate) || leftDate.isEqual(rightDate);
-        case "<=": return leftDate.isBefore(rightDate) || leftDate.isEqual(rightDate);
-        }
-        return false;
+        return this.OPERATOR.test(leftDate.toEpochDay(), rightDate.toEpochDay());
+    }
+    
+    /**
+     * Primitive version of isSatisfiedBy for dates given as epoch days, such
+     * that leftEpochDay constraint.OP rightEpochDay is true or not
+     * @param leftEpochDay The LValue to compare in the constraint, as LocalDate.toEpochDay()
+     * @param rightEpochDay The RValue to compare in the constraint, as LocalDate.toEpochDay()
+     * @return Whether or not the constraint is satisfied with the given days.
+     */
+    public boolean isSatisfiedBy (long leftEpochDay, long rightEpochDay) {
+        return this.OPERATOR.test(leftEpochDay, rightEpochDay);
     }
     
     /**
@@ -63,13 +126,7 @@ public abstract class DateConstraint {
      * @return The operator symmetrical to this constraint's.
      */
     public String getSymmetricalOp () {
-        switch (this.OP) {
-        case ">":  return "<";
-        case "<":  return ">";
-        case ">=": return "<=";
-        case "<=": return ">=";
-        default:   return this.OP;
-        }
+        return this.OPERATOR.symmetric().SYMBOL;
     }
     
     /**
@@ -0,0 +1,227 @@
+package main.csp;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * EpochDaySet stored as a sorted list of disjoint, non-adjacent [lo, hi]
+ * epoch-day intervals. A contiguous range of dates costs two longs no matter
+ * how long it is, and bound-shaving operations (as performed by the <, <=, >,
+ * >= constraints) only ever touch the ends of the list, so this representation
+ * suits inequality-heavy problems over long scheduling horizons.
+ */
+public class DateIntervalSet extends EpochDaySet {
+    
+    // bounds[2k] and bounds[2k + 1] hold the lo and hi of the k-th interval
+    private long[] bounds;
+    private int count;
+    private int size;
+    
+    /**
+     * Creates a new, empty DateIntervalSet.
+     */
+    public DateIntervalSet () {
+        this.bounds = new long[4];
+    }
+    
+    /**
+     * Creates a new DateIntervalSet containing every date between the given
+     * rangeStart and rangeEnd (inclusive) in constant time.
+     * @param rangeStart The first date of the set.
+     * @param rangeEnd The last date of the set.
+     */
+    public DateIntervalSet (LocalDate rangeStart, LocalDate rangeEnd) {
+        this();
+        long lo = rangeStart.toEpochDay(), hi = rangeEnd.toEpochDay();
+        if (lo <= hi) {
+            if (hi - lo + 1 > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Date range too large");
+            }
+            this.bounds[0] = lo;
+            this.bounds[1] = hi;
+            this.count = 1;
+            this.size = (int) (hi - lo + 1);
+        }
+    }
+    
+    /**
+     * Copy-constructor for a DateIntervalSet that initializes it with the
+     * same members as the other.
+     * @param other Other DateIntervalSet from which to make a copy.
+     */
+    public DateIntervalSet (DateIntervalSet other) {
+        this.bounds = Arrays.copyOf(other.bounds, Math.max(4, 2 * other.count));
+        this.count = other.count;
+        this.size = other.size;
+    }
+    
+    /**
+     * @return The number of disjoint intervals making up this set.
+     */
+    public int intervalCount () {
+        return this.count;
+    }
+    
+    @Override
+    public int cardinality () {
+        return this.size;
+    }
+    
+    @Override
+    public boolean containsDay (long day) {
+        int k = this.find(day);
+        return k >= 0 && this.bounds[2 * k + 1] >= day;
+    }
+    
+    @Override
+    public boolean addDay (long day) {
+        int k = this.find(day);
+        if (k >= 0 && this.bounds[2 * k + 1] >= day) { return false; }
+        if (this.size == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Date range too large");
+        }
+        boolean joinsLeft = k >= 0 && this.bounds[2 * k + 1] == day - 1,
+                joinsRight = k + 1 < this.count && this.bounds[2 * (k + 1)] == day + 1;
+        if (joinsLeft && joinsRight) {
+            this.splice(k, k + 2, this.bounds[2 * k], this.bounds[2 * (k + 1) + 1]);
+        } else if (joinsLeft) {
+            this.bounds[2 * k + 1] = day;
+        } else if (joinsRight) {
+            this.bounds[2 * (k + 1)] = day;
+        } else {
+            this.splice(k + 1, k + 1, day, day);
+        }
+        this.size++;
+        return true;
+    }
+    
+    @Override
+    public int addRange (long lo, long hi) {
+        if (lo > hi) { return 0; }
+        // Intervals overlapping or adjacent to [lo, hi] are merged into it
+        int first = this.find(lo - 1);
+        if (first < 0 || this.bounds[2 * first + 1] < lo - 1) { first++; }
+        int last = this.find(hi + 1);
+        long covered = 0;
+        for (int k = first; k <= last; k++) {
+            covered += this.bounds[2 * k + 1] - this.bounds[2 * k] + 1;
+        }
+        if (first <= last) {
+            lo = Math.min(lo, this.bounds[2 * first]);
+            hi = Math.max(hi, this.bounds[2 * last + 1]);
+        }
+        long added = hi - lo + 1 - covered;
+        if (this.size + added > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Date range too large");
+        }
+        this.splice(first, last + 1, lo, hi);
+        this.size += added;
+        return (int) added;
+    }
+    
+    @Override
+    protected boolean deleteDay (long day) {
+        return this.deleteRange(day, day) > 0;
+    }
+    
+    @Override
+    protected int deleteRange (long lo, long hi) {
+        if (lo > hi) { return 0; }
+        int last = this.find(hi);
+        if (last < 0) { return 0; }
+        int first = this.find(lo);
+        if (first < 0 || this.bounds[2 * first + 1] < lo) { first++; }
+        if (first > last) { return 0; }
+        
+        long firstLo = this.bounds[2 * first], lastHi = this.bounds[2 * last + 1];
+        long removed = 0;
+        for (int k = first; k <= last; k++) {
+            removed += Math.min(hi, this.bounds[2 * k + 1]) - Math.max(lo, this.bounds[2 * k]) + 1;
+        }
+        if (firstLo < lo && lastHi > hi) {
+            this.splice(first, last + 1, firstLo, lo - 1, hi + 1, lastHi);
+        } else if (firstLo < lo) {
+            this.splice(first, last + 1, firstLo, lo - 1);
+        } else if (lastHi > hi) {
+            this.splice(first, last + 1, hi + 1, lastHi);
+        } else {
+            this.splice(first, last + 1);
+        }
+        this.size -= removed;
+        return (int) removed;
+    }
+    
+    @Override
+    public long firstDay () {
+        return (this.count == 0) ? NONE : this.bounds[0];
+    }
+    
+    @Override
+    public long lastDay () {
+        return (this.count == 0) ? NONE : this.bounds[2 * this.count - 1];
+    }
+    
+    @Override
+    public long nextDay (long from) {
+        int k = this.find(from);
+        if (k >= 0 && this.bounds[2 * k + 1] >= from) { return from; }
+        return (k + 1 < this.count) ? this.bounds[2 * (k + 1)] : NONE;
+    }
+    
+    @Override
+    public long prevDay (long from) {
+        int k = this.find(from);
+        return (k < 0) ? NONE : Math.min(from, this.bounds[2 * k + 1]);
+    }
+    
+    @Override
+    public long runEnd (long day) {
+        return this.bounds[2 * this.find(day) + 1];
+    }
+    
+    @Override
+    public EpochDaySet copy () {
+        return new DateIntervalSet(this);
+    }
+    
+    @Override
+    protected void deleteAll () {
+        this.count = 0;
+        this.size = 0;
+    }
+    
+    /**
+     * Binary searches for the interval that could contain the given day.
+     * @param day An epoch day.
+     * @return The index of the last interval whose lo is <= day, or -1 if there is none.
+     */
+    private int find (long day) {
+        int lo = 0, hi = this.count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (this.bounds[2 * mid] <= day) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return hi;
+    }
+    
+    /**
+     * Replaces the intervals with indexes in [from, to) by the given intervals.
+     * @param from Index of the first interval to replace.
+     * @param to Index one past the last interval to replace.
+     * @param pieces Flattened lo, hi pairs of the replacement intervals.
+     */
+    private void splice (int from, int to, long... pieces) {
+        int newCount = this.count - (to - from) + pieces.length / 2;
+        if (2 * newCount > this.bounds.length) {
+            this.bounds = Arrays.copyOf(this.bounds, Math.max(2 * newCount, 2 * this.bounds.length));
+        }
+        System.arraycopy(this.bounds, 2 * to, this.bounds, 2 * from + pieces.length, 2 * (this.count - to));
+        System.arraycopy(pieces, 0, this.bounds, 2 * from, pieces.length);
+        this.count = newCount;
+    }
+
+}
@@ -0,0 +1,305 @@
+package main.csp;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Abstract Set of LocalDates whose members are addressed by their epoch day
+ * (LocalDate.toEpochDay()), giving the solver primitive operations on domain
+ * values and bounds without creating LocalDate objects. Iteration is always in
+ * ascending date order.
+ * 
+ * A set may be given a Trail, on which every run of dates removed from it is
+ * then recorded, so that a search can filter domains in place and put them
+ * back in time proportional to the number of changes.
+ */
+public abstract class EpochDaySet extends AbstractSet<LocalDate> {
+    
+    /**
+     * Sentinel returned by the epoch-day queries when no such day exists.
+     */
+    public static final long NONE = Long.MIN_VALUE;
+    
+    private Trail trail;
+    
+    // Epoch-Day Operations
+    // --------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * @return The number of dates in this set.
+     */
+    public abstract int cardinality ();
+    
+    /**
+     * @param day An epoch day.
+     * @return Whether or not the date with the given epoch day is in this set.
+     */
+    public abstract boolean containsDay (long day);
+    
+    /**
+     * Adds the date with the given epoch day to this set.
+     * @param day An epoch day.
+     * @return true if the day was not already a member.
+     */
+    public abstract boolean addDay (long day);
+    
+    /**
+     * Adds every date whose epoch day lies in [lo, hi] to this set.
+     * @param lo The first epoch day to add.
+     * @param hi The last epoch day to add.
+     * @return The number of days that were not already members.
+     */
+    public abstract int addRange (long lo, long hi);
+    
+    /**
+     * Removes the date with the given epoch day from this set.
+     * @param day An epoch day.
+     * @return true if the day was a member.
+     */
+    public final boolean removeDay (long day) {
+        if (this.trail != null && this.containsDay(day)) {
+            this.trail.push(this, day, day);
+        }
+        return this.deleteDay(day);
+    }
+    
+    /**
+     * Removes every date whose epoch day lies in [lo, hi] from this set.
+     * @param lo The first epoch day to remove.
+     * @param hi The last epoch day to remove.
+     * @return The number of days that were removed.
+     */
+    public final int removeRange (long lo, long hi) {
+        if (this.trail != null) {
+            this.record(lo, hi);
+        }
+        return this.deleteRange(lo, hi);
+    }
+    
+    /**
+     * @return The smallest epoch day in this set, or NONE if it is empty.
+     */
+    public abstract long firstDay ();
+    
+    /**
+     * @return The largest epoch day in this set, or NONE if it is empty.
+     */
+    public abstract long lastDay ();
+    
+    /**
+     * @param from An epoch day.
+     * @return The smallest epoch day in this set that is >= from, or NONE if there is none.
+     */
+    public abstract long nextDay (long from);
+    
+    /**
+     * @param from An epoch day.
+     * @return The largest epoch day in this set that is <= from, or NONE if there is none.
+     */
+    public abstract long prevDay (long from);
+    
+    /**
+     * @param day An epoch day that is a member of this set.
+     * @return The largest epoch day e >= day such that every day in [day, e] is a member.
+     */
+    public abstract long runEnd (long day);
+    
+    /**
+     * @return A new, independent EpochDaySet of the same kind with the same members.
+     */
+    public abstract EpochDaySet copy ();
+    
+    /**
+     * Counts the members lying in [lo, hi], run by run.
+     * @param lo The first epoch day to count.
+     * @param hi The last epoch day to count.
+     * @return The number of days in [lo, hi] that are members of this set.
+     */
+    public int countRange (long lo, long hi) {
+        if (lo <= this.firstDay() && hi >= this.lastDay()) { return this.cardinality(); }
+        long count = 0;
+        for (long start = this.nextDay(lo); start != NONE && start <= hi; ) {
+            long end = Math.min(this.runEnd(start), hi);
+            count += end - start + 1;
+            start = (end == Long.MAX_VALUE) ? NONE : this.nextDay(end + 1);
+        }
+        return (int) count;
+    }
+    
+    /**
+     * Removes every date outside of [lo, hi] from this set.
+     * @param lo The smallest epoch day to keep.
+     * @param hi The largest epoch day to keep.
+     * @return true if any day was removed.
+     */
+    public boolean retainRange (long lo, long hi) {
+        if (this.isEmpty()) { return false; }
+        if (lo > hi) {
+            this.clear();
+            return true;
+        }
+        boolean removed = false;
+        long first = this.firstDay(), last = this.lastDay();
+        if (lo > first) {
+            removed |= this.removeRange(first, lo - 1) > 0;
+        }
+        if (hi < last) {
+            removed |= this.removeRange(hi + 1, last) > 0;
+        }
+        return removed;
+    }
+    
+    /**
+     * Removes every day d for which (d op bound) is false, shaving bounds
+     * rather than testing each value.
+     * @param op The comparator
+     * @param bound The epoch day that the days are compared to
+     * @return true if any day was removed.
+     */
+    public boolean restrict (DateConstraint.Operator op, long bound) {
+        switch (op) {
+        case EQ: return this.retainRange(bound, bound);
+        case NE: return this.removeDay(bound);
+        case LT: return this.retainRange(Long.MIN_VALUE, bound - 1);
+        case LE: return this.retainRange(Long.MIN_VALUE, bound);
+        case GT: return this.retainRange(bound + 1, Long.MAX_VALUE);
+        default: return this.retainRange(bound, Long.MAX_VALUE);
+        }
+    }
+    
+    /**
+     * Removes every date that is not also a member of other, walking both sets
+     * run by run rather than day by day.
+     * @param other The set to intersect this one with.
+     * @return true if any day was removed.
+     */
+    public boolean retainDays (EpochDaySet other) {
+        boolean removed = false;
+        for (long start = this.firstDay(); start != NONE; ) {
+            long end = this.runEnd(start);
+            long day = start;
+            while (day <= end) {
+                long kept = other.nextDay(day);
+                if (kept == NONE || kept > end) {
+                    removed |= this.removeRange(day, end) > 0;
+                    break;
+                }
+                if (kept > day) {
+                    removed |= this.removeRange(day, kept - 1) > 0;
+                }
+                day = other.runEnd(kept) + 1;
+            }
+            start = (end == Long.MAX_VALUE) ? NONE : this.nextDay(end + 1);
+        }
+        return removed;
+    }
+    
+    // Removal and Undo
+    // --------------------------------------------------------------------------------------------------------------
+    
+    /**
+     * Removes the date with the given epoch day, without recording it on the trail.
+     * @param day An epoch day.
+     * @return true if the day was a member.
+     */
+    protected abstract boolean deleteDay (long day);
+    
+    /**
+     * Removes every date in [lo, hi], without recording them on the trail.
+     * @param lo The first epoch day to remove.
+     * @param hi The last epoch day to remove.
+     * @return The number of days that were removed.
+     */
+    protected abstract int deleteRange (long lo, long hi);
+    
+    /**
+     * Removes every date of this non-empty set, without recording them on the trail.
+     */
+    protected void deleteAll () {
+        this.deleteRange(this.firstDay(), this.lastDay());
+    }
+    
+    /**
+     * Sets the trail on which removals from this set are recorded from now on.
+     * @param trail The trail to record removals on, or null to stop recording them.
+     */
+    void setTrail (Trail trail) {
+        this.trail = trail;
+    }
+    
+    /**
+     * Records on the trail each run of members lying in [lo, hi].
+     * @param lo The first epoch day about to be removed.
+     * @param hi The last epoch day about to be removed.
+     */
+    private void record (long lo, long hi) {
+        for (long start = this.nextDay(lo); start != NONE && start <= hi; ) {
+            long end = Math.min(this.runEnd(start), hi);
+            this.trail.push(this, start, end);
+            start = (end == Long.MAX_VALUE) ? NONE : this.nextDay(end + 1);
+        }
+    }
+    
+    // Set Operations
+    // --------------------------------------------------------------------------------------------------------------
+    
+    @Override
+    public int size () {
+        return this.cardinality();
+    }
+    
+    @Override
+    public boolean contains (Object o) {
+        return (o instanceof LocalDate) && this.containsDay(((LocalDate) o).toEpochDay());
+    }
+    
+    @Override
+    public boolean add (LocalDate date) {
+        return this.addDay(date.toEpochDay());
+    }
+    
+    @Override
+    public boolean remove (Object o) {
+        return (o instanceof LocalDate) && this.removeDay(((LocalDate) o).toEpochDay());
+    }
+    
+    @Override
+    public final void clear () {
+        if (this.isEmpty()) { return; }
+        if (this.trail != null) {
+            this.record(this.firstDay(), this.lastDay());
+        }
+        this.deleteAll();
+    }
+    
+    /**
+     * Iterates over the dates of this set in ascending order.
+     */
+    @Override
+    public Iterator<LocalDate> iterator () {
+        return new Iterator<LocalDate>() {
+            private long next = firstDay(), last = NONE;
+            
+            @Override
+            public boolean hasNext () {
+                return this.next != NONE;
+            }
+            
+            @Override
+            public LocalDate next () {
+                if (this.next == NONE) { throw new NoSuchElementException(); }
+                this.last = this.next;
+                this.next = nextDay(this.last + 1);
+                return LocalDate.ofEpochDay(this.last);
+            }
+            
+            @Override
+            public void remove () {
+                if (this.last == NONE) { throw new IllegalStateException(); }
+                removeDay(this.last);
+                this.last = NONE;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,141 @@
+package main.csp;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Presolve step collapsing meetings that are forced onto the same day. The
+ * meetings related by binary == constraints are grouped with union-find, and
+ * each group becomes a single meeting of a smaller problem onto which every
+ * other constraint is rewritten. Since all meetings start from the same
+ * range, applying the rewritten unary constraints of a group to its one
+ * domain intersects the domains its members would have had.
+ */
+class EqualityClasses {
+    
+    private final int[] parent;
+    private final int[] classOf;
+    private final int classes;
+    private final Set<DateConstraint> rewritten = new HashSet<>();
+    private boolean consistent = true;
+    
+    /**
+     * Groups the given meetings by their == constraints and rewrites the
+     * constraints onto the groups.
+     * @param nMeetings The number of meetings, indexed from 0 to n-1
+     * @param constraints The constraints of the problem
+     */
+    EqualityClasses (int nMeetings, Set<DateConstraint> constraints) {
+        this.parent = new int[nMeetings];
+        for (int i = 0; i < nMeetings; i++) {
+            this.parent[i] = i;
+        }
+        for (DateConstraint c : constraints) {
+            if (c.ARITY == 2 && c.OPERATOR == DateConstraint.Operator.EQ) {
+                this.union(c.L_VAL, ((BinaryDateConstraint) c).R_VAL);
+            }
+        }
+        
+        // Number the classes in order of their smallest meeting
+        this.classOf = new int[nMeetings];
+        int[] classOfRoot = new int[nMeetings];
+        Arrays.fill(classOfRoot, -1);
+        int classes = 0;
+        for (int i = 0; i < nMeetings; i++) {
+            int root = this.find(i);
+            if (classOfRoot[root] < 0) {
+                classOfRoot[root] = classes++;
+            }
+            this.classOf[i] = classOfRoot[root];
+        }
+        this.classes = classes;
+        
+        for (DateConstraint c : constraints) {
+            int l = this.classOf[c.L_VAL];
+            if (c.ARITY == 1) {
+                this.rewritten.add(new UnaryDateConstraint(l, c.OP, ((UnaryDateConstraint) c).R_VAL));
+                continue;
+            }
+            int r = this.classOf[((BinaryDateConstraint) c).R_VAL];
+            if (l != r) {
+                this.rewritten.add(new BinaryDateConstraint(l, c.OP, r));
+            } else if (!c.OPERATOR.test(0, 0)) {
+                // <, > or != between two meetings forced onto the same day
+                this.consistent = false;
+            }
+        }
+    }
+    
+    /**
+     * @return The number of meetings of the merged problem.
+     */
+    int size () {
+        return this.classes;
+    }
+    
+    /**
+     * @return false if some constraint can never hold between meetings of the same class.
+     */
+    boolean isConsistent () {
+        return this.consistent;
+    }
+    
+    /**
+     * @return The constraints of the merged problem, over class indexes.
+     */
+    Set<DateConstraint> constraints () {
+        return this.rewritten;
+    }
+    
+    /**
+     * Expands a solution of the merged problem into one of the original problem.
+     * @param merged The date of each class
+     * @return The date of each original meeting
+     */
+    List<LocalDate> expand (List<LocalDate> merged) {
+        List<LocalDate> dates = new ArrayList<>(this.classOf.length);
+        for (int c : this.classOf) {
+            dates.add(merged.get(c));
+        }
+        return dates;
+    }
+    
+    /**
+     * Expands epoch days of the merged problem's meetings into those of the
+     * original problem's meetings.
+     * @param merged The epoch day of each class
+     * @return The epoch day of each original meeting
+     */
+    long[] expand (long[] merged) {
+        long[] days = new long[this.classOf.length];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = merged[this.classOf[i]];
+        }
+        return days;
+    }
+    
+    /**
+     * @param meeting A meeting index
+     * @return The root of the meeting's union-find tree
+     */
+    private int find (int meeting) {
+        while (this.parent[meeting] != meeting) {
+            this.parent[meeting] = this.parent[this.parent[meeting]];
+            meeting = this.parent[meeting];
+        }
+        return meeting;
+    }
+    
+    /**
+     * Merges the classes of the two given meetings.
+     * @param a A meeting index
+     * @param b A meeting index
+     */
+    private void union (int a, int b) {
+        int ra = this.find(a), rb = this.find(b);
+        if (ra != rb) {
+            this.parent[Math.max(ra, rb)] = Math.min(ra, rb);
+        }
+    }
+    
+}
@@ -9,19 +9,36 @@ import java.util.*;
  */
 public class MeetingDomain {
     
+    /**
+     * The representations available for a MeetingDomain's values:
+     * BITSET stores one bit per day of the range, INTERVALS stores
+     * sorted [lo, hi] runs of days.
+     */
+    public enum Kind { BITSET, INTERVALS }
+    
     public Set<LocalDate> domainValues;
     
     /**
      * Creates a new MeetingDomain with all dates between the given rangeStart
-     * and rangeEnd (inclusive).
+     * and rangeEnd (inclusive), stored as a DateBitSet over that range.
      * @param rangeStart The beginning date of the domain.
      * @param rangeEnd The end date of the domain.
      */
     public MeetingDomain (LocalDate rangeStart, LocalDate rangeEnd) {
-        this.domainValues = new HashSet<>();
-        for (LocalDate date = rangeStart; date.isBefore(rangeEnd) || date.isEqual(rangeEnd); date = date.plusDays(1)) {
-            this.domainValues.add(date);
-        }
+        this(rangeStart, rangeEnd, Kind.BITSET);
+    }
+    
+    /**
+     * Creates a new MeetingDomain with all dates between the given rangeStart
+     * and rangeEnd (inclusive), stored with the given representation.
+     * @param rangeStart The beginning date of the domain.
+     * @param rangeEnd The end date of the domain.
+     * @param kind The representation of the domain's values.
+     */
+    public MeetingDomain (LocalDate rangeStart, LocalDate rangeEnd, Kind kind) {
+        this.domainValues = (kind == Kind.INTERVALS)
+            ? new DateIntervalSet(rangeStart, rangeEnd)
+            : new DateBitSet(rangeStart, rangeEnd);
     }
     
     /**
@@ -30,7 +47,26 @@ public class MeetingDomain {
      * @param other Other MeetingDomain from which to make a copy.
      */
     public MeetingDomain (MeetingDomain other) {
-        this.domainValues = new HashSet<>(other.domainValues);
+        this.domainValues = (other.domainValues instanceof EpochDaySet)
+            ? ((EpochDaySet) other.domainValues).copy()
+            : new HashSet<>(other.domainValues);
+    }
+    
+    /**
+     * Returns this domain's values as an EpochDaySet, first converting them
+     * into a DateIntervalSet if domainValues has been replaced by some other
+     * kind of Set.
+     * @return The EpochDaySet holding this domain's values.
+     */
+    public EpochDaySet days () {
+        if (!(this.domainValues instanceof EpochDaySet)) {
+            EpochDaySet days = new DateIntervalSet();
+            for (LocalDate date : this.domainValues) {
+                days.add(date);
+            }
+            this.domainValues = days;
+        }
+        return (EpochDaySet) this.domainValues;
     }
     
     @Override
@@ -0,0 +1,119 @@
+package main.csp;
+
+import java.time.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts the work done by the searches of one solve against its Budget.
+ * Node and fail counts are shared by all of them, even when components are
+ * solved in parallel, and the clock, the cancellation token and the calling
+ * thread's interrupt status are only checked every CLOCK_PERIOD events, so
+ * that checking the budget costs next to nothing per assignment or arc
+ * revision. Once any limit is exceeded, or the solve is cancelled, the meter
+ * stays expired.
+ */
+class Meter {
+    
+    /**
+     * The number of events counted between two reads of the clock.
+     */
+    static final int CLOCK_PERIOD = 256;
+    
+    private final boolean timed;
+    private final long deadline;
+    private final long nodeLimit, failLimit;
+    private final CancellationToken token;
+    private final Thread caller;
+    private final AtomicLong nodes = new AtomicLong(), fails = new AtomicLong();
+    private volatile boolean expired, cancelled;
+    
+    // Counts events until the next read of the clock; races only shift the reads
+    private int ticks;
+    
+    /**
+     * Creates a new Meter, starting the clock.
+     * @param budget The limits to enforce
+     */
+    Meter (Budget budget) {
+        this.timed = budget.deadline != null;
+        long left = 0;
+        if (this.timed) {
+            Duration remaining = Duration.between(Instant.now(), budget.deadline);
+            // Deadlines centuries away overflow a count of nanoseconds
+            left = remaining.isNegative() ? 0
+                 : (remaining.getSeconds() >= Long.MAX_VALUE / 2_000_000_000L) ? Long.MAX_VALUE / 2
+                 : remaining.toNanos();
+        }
+        this.deadline = System.nanoTime() + left;
+        this.nodeLimit = budget.nodes;
+        this.failLimit = budget.fails;
+        this.token = budget.cancellation;
+        this.caller = Thread.currentThread();
+    }
+    
+    /**
+     * Counts an assignment made by a search.
+     * @return false if the budget is now spent, true otherwise
+     */
+    boolean node () {
+        if (this.nodes.incrementAndGet() > this.nodeLimit) {
+            this.expired = true;
+        }
+        return this.tick();
+    }
+    
+    /**
+     * Counts a dead end reached by a search.
+     * @return false if the budget is now spent, true otherwise
+     */
+    boolean fail () {
+        if (this.fails.incrementAndGet() > this.failLimit) {
+            this.expired = true;
+        }
+        return this.tick();
+    }
+    
+    /**
+     * Counts a step of propagation, which the budget does not limit but which
+     * must notice the deadline and cancellation all the same.
+     * @return false if the budget is now spent, true otherwise
+     */
+    boolean step () {
+        return this.tick();
+    }
+    
+    /**
+     * Reads the clock and checks for cancellation right away, as before a search
+     * starts.
+     * @return Whether the budget is spent
+     */
+    boolean expired () {
+        if ((this.token != null && this.token.isCancelled()) || this.caller.isInterrupted()) {
+            this.cancelled = true;
+            this.expired = true;
+        } else if (this.timed && System.nanoTime() - this.deadline >= 0) {
+            this.expired = true;
+        }
+        return this.expired;
+    }
+    
+    /**
+     * @return Whether the meter expired because the solve was cancelled
+     */
+    boolean cancelled () {
+        return this.cancelled;
+    }
+    
+    /**
+     * Checks the clock and for cancellation once every CLOCK_PERIOD calls.
+     * @return false if the budget is spent, true otherwise
+     */
+    private boolean tick () {
+        if (++this.ticks >= CLOCK_PERIOD) {
+            this.ticks = 0;
+            return !this.expired();
+        }
+        return !this.expired;
+    }
+    
+}
@@ -0,0 +1,137 @@
+package main.csp;
+
+import java.util.*;
+
+/**
+ * Bounded database of nogoods: sets of meeting = date assignments that the
+ * search has proven cannot all be part of a solution. Each nogood is indexed
+ * by every meeting it mentions, so that an assignment only needs to be checked
+ * against the nogoods of its own meeting, and once the store is full the least
+ * recently recorded or matched nogood is evicted.
+ */
+class NogoodStore {
+    
+    /**
+     * Nogoods with more assignments than this are rarely matched again, and are
+     * not worth their space in the store.
+     */
+    static final int MAX_SIZE = 64;
+    
+    /**
+     * An immutable set of meeting = date assignments, sorted by meeting.
+     */
+    static final class Nogood {
+        
+        final int[] MEETINGS;
+        final long[] DAYS;
+        
+        /**
+         * Creates a new Nogood of the given assignments.
+         * @param meetings The meetings assigned, in ascending order
+         * @param days The epoch day assigned to each of the meetings
+         */
+        Nogood (int[] meetings, long[] days) {
+            this.MEETINGS = meetings;
+            this.DAYS = days;
+        }
+        
+        @Override
+        public boolean equals (Object other) {
+            if (this == other) { return true; }
+            if (!(other instanceof Nogood)) { return false; }
+            Nogood otherNG = (Nogood) other;
+            return Arrays.equals(this.MEETINGS, otherNG.MEETINGS) && Arrays.equals(this.DAYS, otherNG.DAYS);
+        }
+        
+        @Override
+        public int hashCode () {
+            return 31 * Arrays.hashCode(this.MEETINGS) + Arrays.hashCode(this.DAYS);
+        }
+    
+    }
+    
+    private final List<Set<Nogood>> byMeeting;
+    private final LinkedHashMap<Nogood, Nogood> recent;
+    
+    /**
+     * Creates a new, empty NogoodStore.
+     * @param nMeetings The number of meetings, indexed from 0 to n-1
+     * @param capacity The largest number of nogoods kept at once
+     */
+    NogoodStore (int nMeetings, int capacity) {
+        this.byMeeting = new ArrayList<>();
+        for (int i = 0; i < nMeetings; i++) {
+            this.byMeeting.add(new HashSet<>());
+        }
+        // Iterates from least to most recently used
+        this.recent = new LinkedHashMap<Nogood, Nogood>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry (Map.Entry<Nogood, Nogood> eldest) {
+                if (this.size() <= capacity) { return false; }
+                for (int meeting : eldest.getKey().MEETINGS) {
+                    byMeeting.get(meeting).remove(eldest.getKey());
+                }
+                return true;
+            }
+        };
+    }
+    
+    /**
+     * Records that the given meetings cannot all take the dates they hold in days,
+     * unless there are more than MAX_SIZE of them.
+     * @param meetings The meetings of the nogood, in any order
+     * @param count The number of meetings to read from meetings
+     * @param days The epoch day assigned to each meeting
+     */
+    void record (int[] meetings, int count, long[] days) {
+        if (count == 0 || count > MAX_SIZE) { return; }
+        int[] sorted = Arrays.copyOf(meetings, count);
+        Arrays.sort(sorted);
+        long[] values = new long[count];
+        for (int k = 0; k < count; k++) {
+            values[k] = days[sorted[k]];
+        }
+        Nogood nogood = new Nogood(sorted, values);
+        if (this.recent.get(nogood) != null) { return; }
+        for (int meeting : sorted) {
+            this.byMeeting.get(meeting).add(nogood);
+        }
+        this.recent.put(nogood, nogood);
+    }
+    
+    /**
+     * Finds a nogood that the date just given to the meeting would complete.
+     * @param meeting The meeting that was just given a date
+     * @param days The epoch day assigned to each meeting
+     * @param assigned Whether or not each other meeting is assigned
+     * @return A nogood all of whose assignments now hold, or null if there is none
+     */
+    Nogood violated (int meeting, long[] days, boolean[] assigned) {
+        for (Nogood nogood : this.byMeeting.get(meeting)) {
+            if (this.holds(nogood, meeting, days, assigned)) {
+                // Counts as a use for eviction
+                this.recent.get(nogood);
+                return nogood;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * @param nogood A nogood mentioning the meeting
+     * @param meeting The meeting that was just given a date
+     * @param days The epoch day assigned to each meeting
+     * @param assigned Whether or not each other meeting is assigned
+     * @return Whether every assignment of the nogood holds
+     */
+    private boolean holds (Nogood nogood, int meeting, long[] days, boolean[] assigned) {
+        for (int k = 0; k < nogood.MEETINGS.length; k++) {
+            int m = nogood.MEETINGS[k];
+            if ((m != meeting && !assigned[m]) || days[m] != nogood.DAYS[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
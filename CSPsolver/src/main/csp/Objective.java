@@ -0,0 +1,98 @@
+package main.csp;
+
+import java.util.*;
+
+/**
+ * Cost of a schedule, to be minimized by CSPSolver.optimize. Schedules are
+ * given as the epoch day of each meeting, and besides the cost of a complete
+ * schedule an Objective must bound the cost of every schedule that keeps each
+ * meeting within a range of days, which the solver uses to abandon partial
+ * schedules that cannot improve on the best one found so far.
+ */
+public interface Objective {
+    
+    /**
+     * @param days The epoch day of each meeting in a complete schedule.
+     * @return The cost of the schedule.
+     */
+    long cost (long[] days);
+    
+    /**
+     * @param earliest The earliest epoch day each meeting may still take.
+     * @param latest The latest epoch day each meeting may still take.
+     * @return A lower bound of the cost of every schedule in which each meeting i falls
+     *         within [earliest[i], latest[i]], equal to its cost if earliest and latest are.
+     *         The solver reuses both arrays, which must not be kept or modified.
+     */
+    long lowerBound (long[] earliest, long[] latest);
+    
+    /**
+     * The date of the last meeting.
+     */
+    Objective EARLIEST_FINISH = new Objective() {
+        @Override
+        public long cost (long[] days) {
+            return this.lowerBound(days, days);
+        }
+        
+        @Override
+        public long lowerBound (long[] earliest, long[] latest) {
+            long finish = Long.MIN_VALUE;
+            for (long day : earliest) {
+                finish = Math.max(finish, day);
+            }
+            return finish;
+        }
+    };
+    
+    /**
+     * The number of days between the first and the last meeting.
+     */
+    Objective SPREAD = new Objective() {
+        @Override
+        public long cost (long[] days) {
+            return this.lowerBound(days, days);
+        }
+        
+        @Override
+        public long lowerBound (long[] earliest, long[] latest) {
+            if (earliest.length == 0) { return 0; }
+            long lastStart = Long.MIN_VALUE, firstEnd = Long.MAX_VALUE;
+            for (int i = 0; i < earliest.length; i++) {
+                lastStart = Math.max(lastStart, earliest[i]);
+                firstEnd = Math.min(firstEnd, latest[i]);
+            }
+            return Math.max(0, lastStart - firstEnd);
+        }
+    };
+    
+    /**
+     * The number of distinct days on which meetings are held.
+     */
+    Objective DAYS_USED = new Objective() {
+        @Override
+        public long cost (long[] days) {
+            return Arrays.stream(days).distinct().count();
+        }
+        
+        @Override
+        public long lowerBound (long[] earliest, long[] latest) {
+            // Meetings whose ranges are pairwise disjoint need a day each: pick them
+            // greedily by earliest end, which finds as many of them as possible
+            Integer[] byEnd = new Integer[earliest.length];
+            for (int i = 0; i < byEnd.length; i++) {
+                byEnd[i] = i;
+            }
+            Arrays.sort(byEnd, Comparator.comparingLong(i -> latest[i]));
+            long disjoint = 0, lastEnd = Long.MIN_VALUE;
+            for (int i : byEnd) {
+                if (disjoint == 0 || earliest[i] > lastEnd) {
+                    disjoint++;
+                    lastEnd = latest[i];
+                }
+            }
+            return disjoint;
+        }
+    };
+
+}
@@ -0,0 +1,150 @@
+package main.csp;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs several configurations of the CSPSolver on the same problem at once,
+ * one thread each, and returns the result of the first of them to solve it
+ * or prove it unsatisfiable, cancelling the rest. Since no single choice of
+ * heuristics is best on every problem, racing diverse ones takes about as
+ * long as the best of them would have on its own, given enough cores.
+ */
+public class PortfolioSolver {
+    
+    /**
+     * The number of configurations in the default portfolio: one per core.
+     */
+    public static final int DEFAULT_SIZE = Runtime.getRuntime().availableProcessors();
+    
+    /**
+     * Solves the CSP specified as for CSPSolver.solve with the default portfolio,
+     * and no limit but completion.
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times (unary and binary for this assignment)
+     * @return A list of dates that satisfies each of the constraints for each of the n meetings,
+     *         indexed by the variable they satisfy, or null if no solution exists.
+     */
+    public static List<LocalDate> solve (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints) {
+        return solve(nMeetings, rangeStart, rangeEnd, constraints, defaultPortfolio(DEFAULT_SIZE), new Budget()).SOLUTION;
+    }
+    
+    /**
+     * Solves the CSP specified as for CSPSolver.solve with each of the given options
+     * at once, each on its own thread, until one of them solves it or proves it
+     * unsatisfiable. Every configuration gets its own copy of the budget's node and
+     * fail limits, while the deadline and cancellation token are common to all.
+     * @param nMeetings The number of meetings that must be scheduled, indexed from 0 to n-1
+     * @param rangeStart The start date (inclusive) of the domains of each of the n meeting-variables
+     * @param rangeEnd The end date (inclusive) of the domains of each of the n meeting-variables
+     * @param constraints Date constraints on the meeting times (unary and binary for this assignment)
+     * @param portfolio The settings of each configuration to run, at least one
+     * @param budget Limits on the time, assignments and dead ends each configuration may spend
+     * @return The result of the first configuration to finish with SOLVED or UNSAT; else
+     *         CANCELLED if the budget's token was cancelled or the calling thread
+     *         interrupted, or TIMEOUT, each with the deepest partial assignment of the
+     *         configurations stopped so far (null if there are none yet)
+     * @throws IllegalArgumentException if the portfolio is empty
+     */
+    public static SolveResult solve (int nMeetings, LocalDate rangeStart, LocalDate rangeEnd, Set<DateConstraint> constraints, List<SolverOptions> portfolio, Budget budget) {
+        if (portfolio.isEmpty()) {
+            throw new IllegalArgumentException("The portfolio must hold at least one configuration");
+        }
+        // Cancelling the shared token stops the losers, as does the caller's token
+        CancellationToken race = new CancellationToken(budget.cancellation);
+        Budget shared = new Budget(budget);
+        shared.cancellation = race;
+        ExecutorService pool = Executors.newFixedThreadPool(portfolio.size(), runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<SolveResult> results = new ExecutorCompletionService<>(pool);
+        try {
+            for (SolverOptions options : portfolio) {
+                results.submit(() -> CSPSolver.solve(nMeetings, rangeStart, rangeEnd, constraints, options, shared));
+            }
+            SolveResult best = null;
+            for (int finished = 0; finished < portfolio.size(); finished++) {
+                SolveResult result;
+                try {
+                    result = results.take().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return new SolveResult(SolveResult.Status.CANCELLED, (best == null) ? null : best.SOLUTION);
+                } catch (ExecutionException e) {
+                    // Fail as the configuration would have on the calling thread
+                    if (e.getCause() instanceof RuntimeException) { throw (RuntimeException) e.getCause(); }
+                    if (e.getCause() instanceof Error) { throw (Error) e.getCause(); }
+                    throw new IllegalStateException(e.getCause());
+                }
+                if (result.STATUS == SolveResult.Status.SOLVED || result.STATUS == SolveResult.Status.UNSAT) {
+                    return result;
+                }
+                if (best == null || assigned(result) > assigned(best)) {
+                    best = result;
+                }
+            }
+            // Every configuration was stopped: by the caller if any of them was cancelled
+            boolean cancelled = budget.cancellation != null && budget.cancellation.isCancelled();
+            return new SolveResult(cancelled ? SolveResult.Status.CANCELLED : best.STATUS, best.SOLUTION);
+        } finally {
+            race.cancel();
+            pool.shutdownNow();
+        }
+    }
+    
+    /**
+     * Builds a portfolio of diverse configurations: the default options, MAC with
+     * AC2001 and DOM_DEG, forward checking with MRV and least constraining dates,
+     * and MAC with bounds propagation trying the latest dates first, followed by
+     * as many randomized configurations with Luby restarts and nogood learning as
+     * it takes, each with its own seed. Components are solved sequentially, as the
+     * portfolio already occupies the cores.
+     * @param size The number of configurations, at least one
+     * @return The settings of each configuration, most dependable first
+     */
+    public static List<SolverOptions> defaultPortfolio (int size) {
+        List<SolverOptions> portfolio = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            SolverOptions options = new SolverOptions();
+            switch (i) {
+            case 0:
+                break;
+            case 1:
+                options.search = SolverOptions.Search.MAINTAIN_ARC_CONSISTENCY;
+                options.propagation = SolverOptions.Propagation.AC2001;
+                options.variableOrder = SolverOptions.VariableOrder.DOM_DEG;
+                break;
+            case 2:
+                options.variableOrder = SolverOptions.VariableOrder.MRV;
+                options.valueOrder = SolverOptions.ValueOrder.LEAST_CONSTRAINING;
+                break;
+            case 3:
+                options.search = SolverOptions.Search.MAINTAIN_ARC_CONSISTENCY;
+                options.valueOrder = SolverOptions.ValueOrder.DESCENDING;
+                break;
+            default:
+                options.valueOrder = SolverOptions.ValueOrder.RANDOM;
+                options.restarts = SolverOptions.Restarts.LUBY;
+                options.learnNogoods = true;
+                options.seed = i;
+            }
+            options.parallelComponents = false;
+            portfolio.add(options);
+        }
+        return portfolio;
+    }
+    
+    /**
+     * @param result A result of a solve stopped by its budget
+     * @return The number of meetings its partial assignment gives a date
+     */
+    private static long assigned (SolveResult result) {
+        return result.SOLUTION.stream().filter(Objects::nonNull).count();
+    }
+    
+}
@@ -0,0 +1,44 @@
+package main.csp;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Iterator over the solutions found by a BacktrackSearch, which only resumes
+ * the search when the next solution is asked for.
+ */
+class SolutionIterator implements Iterator<List<LocalDate>> {
+    
+    private final BacktrackSearch search;
+    private long[] next;
+    private boolean fetched;
+    
+    /**
+     * Creates a new SolutionIterator over the solutions of the given search.
+     * @param search The search to resume for each solution, or null if filtering
+     *        has already shown that there is none
+     */
+    SolutionIterator (BacktrackSearch search) {
+        this.search = search;
+        this.fetched = (search == null);
+    }
+    
+    @Override
+    public boolean hasNext () {
+        if (!this.fetched) {
+            this.next = this.search.next();
+            this.fetched = true;
+        }
+        return this.next != null;
+    }
+    
+    @Override
+    public List<LocalDate> next () {
+        if (!this.hasNext()) { throw new NoSuchElementException(); }
+        this.fetched = false;
+        List<LocalDate> dates = CSPSolver.toDates(this.next);
+        this.next = null;
+        return dates;
+    }
+
+}
@@ -0,0 +1,39 @@
+package main.csp;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Outcome of a budgeted solve: a solution, a proof that there is none, or,
+ * when the budget ran out or the solve was cancelled first, the deepest
+ * partial assignment the search reached.
+ */
+public class SolveResult {
+    
+    /**
+     * The possible outcomes: SOLVED found a solution, UNSAT proved that there is
+     * none, TIMEOUT ran out of budget before doing either, and CANCELLED was
+     * stopped by its cancellation token or by interrupting its thread.
+     */
+    public enum Status { SOLVED, UNSAT, TIMEOUT, CANCELLED }
+    
+    public final Status STATUS;
+    
+    /**
+     * The dates indexed by meeting: every one of them if SOLVED, none if UNSAT,
+     * and if TIMEOUT or CANCELLED those of a consistent partial assignment, with
+     * null for each meeting it leaves unassigned.
+     */
+    public final List<LocalDate> SOLUTION;
+    
+    /**
+     * Creates a new SolveResult.
+     * @param status The outcome of the solve
+     * @param solution The dates found for each meeting, or null if UNSAT
+     */
+    SolveResult (Status status, List<LocalDate> solution) {
+        this.STATUS = status;
+        this.SOLUTION = solution;
+    }
+    
+}
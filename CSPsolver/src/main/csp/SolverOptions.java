@@ -0,0 +1,172 @@
+package main.csp;
+
+/**
+ * Options controlling how the CSPSolver searches for a solution. A new
+ * SolverOptions holds the defaults used by the plain CSPSolver.solve method;
+ * fields may be changed freely before the options are handed to the solver.
+ */
+public class SolverOptions {
+    
+    /**
+     * The algorithms available for enforcing arc consistency:
+     * AC3 revises an arc by searching the head domain for a support of each
+     * tail value from scratch, AC2001 remembers the last support found per
+     * arc and tail value and resumes the search from there, and BOUNDS revises
+     * each arc in closed form from the bounds of its head domain.
+     */
+    public enum Propagation { AC3, AC2001, BOUNDS }
+    
+    /**
+     * The search algorithms available once the domains are filtered:
+     * BACKTRACKING checks each tentative assignment against the constraints
+     * incident to the assigned meeting, FORWARD_CHECKING instead filters the
+     * domains of the meeting's unassigned neighbors and backtracks as soon as
+     * one of them becomes empty, and MAINTAIN_ARC_CONSISTENCY (MAC) goes on to
+     * re-establish arc consistency over all unassigned meetings after each
+     * assignment, using the propagation algorithm.
+     */
+    public enum Search { BACKTRACKING, FORWARD_CHECKING, MAINTAIN_ARC_CONSISTENCY }
+    
+    /**
+     * The heuristics available for choosing which meeting to assign next:
+     * INDEX assigns meetings in index order, MRV picks the meeting with the
+     * fewest remaining values, DEGREE the one constrained with the most
+     * unassigned meetings, DOM_DEG the smallest ratio of the two, and DOM_WDEG
+     * weighs each constraint by the number of dead ends it has caused so far.
+     * Ties go to the lowest index.
+     */
+    public enum VariableOrder { INDEX, MRV, DEGREE, DOM_DEG, DOM_WDEG }
+    
+    /**
+     * The orders in which the dates of a meeting's domain can be tried:
+     * ASCENDING tries the earliest date first, DESCENDING the latest,
+     * LEAST_CONSTRAINING the one that rules out the fewest dates of the
+     * meeting's unassigned neighbors (earliest first among equals), and
+     * RANDOM shuffles them with a generator seeded by the options' seed.
+     */
+    public enum ValueOrder { ASCENDING, DESCENDING, LEAST_CONSTRAINING, RANDOM }
+    
+    /**
+     * The restart schedules available to the search: NONE runs a single,
+     * complete search, LUBY allows restartBase times the i-th term of the Luby
+     * sequence (1, 1, 2, 1, 1, 2, 4, ...) failures to the i-th run, and
+     * GEOMETRIC allows restartBase times restartFactor^(i-1).
+     */
+    public enum Restarts { NONE, LUBY, GEOMETRIC }
+    
+    /**
+     * The arc consistency algorithm used to filter domains.
+     */
+    public Propagation propagation = Propagation.BOUNDS;
+    
+    /**
+     * Whether to tighten domains with a Simple Temporal Network before searching,
+     * which detects infeasible ordering constraints early and solves problems made
+     * only of ordering and equality constraints without any search when dates
+     * are tried in ASCENDING or DESCENDING order.
+     */
+    public boolean temporalNetwork = true;
+    
+    /**
+     * The search algorithm used to find an assignment.
+     */
+    public Search search = Search.FORWARD_CHECKING;
+    
+    /**
+     * The heuristic used to choose the next meeting to assign.
+     */
+    public VariableOrder variableOrder = VariableOrder.DOM_WDEG;
+    
+    /**
+     * The order in which the dates of the chosen meeting are tried.
+     */
+    public ValueOrder valueOrder = ValueOrder.ASCENDING;
+    
+    /**
+     * The seed of every random choice made by the solver, so that a run can
+     * always be reproduced.
+     */
+    public long seed = 0;
+    
+    /**
+     * The restart schedule of the search. Restarting also breaks ties between
+     * meetings, and between least constraining dates, at random.
+     */
+    public Restarts restarts = Restarts.NONE;
+    
+    /**
+     * The number of failures allowed to the first run under a restart schedule.
+     */
+    public int restartBase = 100;
+    
+    /**
+     * The growth factor of the GEOMETRIC restart schedule.
+     */
+    public double restartFactor = 1.5;
+    
+    /**
+     * Whether BACKTRACKING and FORWARD_CHECKING search jump straight back to the
+     * deepest assignment responsible for a dead end (conflict-directed
+     * backjumping) instead of undoing the last one. MAC ignores this setting.
+     */
+    public boolean backjumping = true;
+    
+    /**
+     * Whether the search records the combinations of assignments it proves
+     * infeasible as nogoods, and checks later assignments against them.
+     */
+    public boolean learnNogoods = false;
+    
+    /**
+     * The largest number of nogoods kept at once, beyond which the least
+     * recently used ones are forgotten.
+     */
+    public int nogoodCapacity = 10000;
+    
+    /**
+     * Whether to collapse meetings related by == constraints into a single
+     * meeting before solving, and expand the solution back afterwards.
+     */
+    public boolean mergeEqualities = true;
+    
+    /**
+     * Whether to split the problem into the connected components of its
+     * constraint graph and solve each of them independently.
+     */
+    public boolean decompose = true;
+    
+    /**
+     * Whether independent components are solved in parallel, on the common
+     * fork-join pool, rather than one after the other.
+     */
+    public boolean parallelComponents = false;
+    
+    /**
+     * Creates a new SolverOptions holding the default settings.
+     */
+    public SolverOptions () {}
+    
+    /**
+     * Copy-constructor for a SolverOptions that initializes it with the
+     * same settings as the other.
+     * @param other Other SolverOptions from which to make a copy.
+     */
+    public SolverOptions (SolverOptions other) {
+        this.propagation = other.propagation;
+        this.temporalNetwork = other.temporalNetwork;
+        this.search = other.search;
+        this.variableOrder = other.variableOrder;
+        this.valueOrder = other.valueOrder;
+        this.seed = other.seed;
+        this.restarts = other.restarts;
+        this.restartBase = other.restartBase;
+        this.restartFactor = other.restartFactor;
+        this.backjumping = other.backjumping;
+        this.learnNogoods = other.learnNogoods;
+        this.nogoodCapacity = other.nogoodCapacity;
+        this.mergeEqualities = other.mergeEqualities;
+        this.decompose = other.decompose;
+        this.parallelComponents = other.parallelComponents;
+    }
+    
+}
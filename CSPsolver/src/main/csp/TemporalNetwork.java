@@ -0,0 +1,180 @@
+package main.csp;
+
+import java.util.*;
+
+/**
+ * Simple Temporal Network view of a problem: every ordering or equality
+ * constraint between meetings, and every bound on a meeting's date, is a
+ * difference constraint x_j - x_i <= w over the meetings' epoch days, and so
+ * an edge i -> j of weight w in a distance graph with an extra origin node
+ * standing for epoch day 0. Shortest paths from and to the origin give the
+ * latest and earliest date each meeting can take under those constraints, and
+ * a negative cycle means that no schedule exists at all.
+ *
+ * != constraints cannot be written as difference constraints and are left
+ * out of the network, so its bounds are valid but not always tight for
+ * problems that use them.
+ */
+class TemporalNetwork {
+    
+    private static final long INF = Long.MAX_VALUE / 4;
+    
+    private final int n;
+    private final EpochDaySet[] domains;
+    private final boolean simple;
+    private int[] from = new int[16], to = new int[16];
+    private long[] weight = new long[16];
+    private int edges;
+    
+    private final long[] earliest, latest;
+    private final boolean consistent;
+    
+    /**
+     * Builds the distance graph of the given problem and computes the earliest
+     * and latest date of every meeting with Bellman-Ford.
+     * @param index The constraints indexed by meeting
+     * @param domains List of MeetingDomains in which index i corresponds to D_i
+     */
+    TemporalNetwork (ConstraintIndex index, List<MeetingDomain> domains) {
+        this.n = domains.size();
+        this.domains = new EpochDaySet[this.n];
+        this.earliest = new long[this.n];
+        this.latest = new long[this.n];
+        
+        boolean simple = true, nonEmpty = true;
+        for (int i = 0; i < this.n; i++) {
+            EpochDaySet days = this.domains[i] = domains.get(i).days();
+            if (days.isEmpty()) {
+                nonEmpty = false;
+                continue;
+            }
+            // lo <= x_i <= hi
+            this.addEdge(this.n, i, days.lastDay());
+            this.addEdge(i, this.n, -days.firstDay());
+        }
+        for (Arc a : index.ARCS) {
+            if (a.TAIL > a.HEAD) { continue; }
+            switch (a.CONSTRAINT.OPERATOR) {
+            case LT: this.addEdge(a.HEAD, a.TAIL, -1); break;
+            case LE: this.addEdge(a.HEAD, a.TAIL, 0);  break;
+            case GT: this.addEdge(a.TAIL, a.HEAD, -1); break;
+            case GE: this.addEdge(a.TAIL, a.HEAD, 0);  break;
+            case EQ:
+                this.addEdge(a.HEAD, a.TAIL, 0);
+                this.addEdge(a.TAIL, a.HEAD, 0);
+                break;
+            default:
+                simple = false;
+            }
+        }
+        this.simple = simple;
+        
+        long[] dist = new long[this.n + 1];
+        boolean consistent = nonEmpty && this.shortestPaths(dist, false);
+        for (int i = 0; i < this.n; i++) {
+            this.latest[i] = dist[i];
+        }
+        consistent = consistent && this.shortestPaths(dist, true);
+        for (int i = 0; i < this.n; i++) {
+            this.earliest[i] = -dist[i];
+        }
+        this.consistent = consistent;
+    }
+    
+    /**
+     * Removes every date outside of [earliest, latest] from each meeting's domain.
+     * @return false if the network has a negative cycle or some domain became empty,
+     *         true otherwise
+     */
+    boolean tighten () {
+        if (!this.consistent) { return false; }
+        for (int i = 0; i < this.n; i++) {
+            this.domains[i].retainRange(this.earliest[i], this.latest[i]);
+            if (this.domains[i].isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * When the problem consists of nothing but difference constraints, scheduling
+     * every meeting at its earliest date satisfies all of them, so the only thing
+     * left to check is that those dates are still in the meetings' domains.
+     * @return The epoch day of each meeting in the earliest schedule, or null if
+     *         the problem has constraints the network does not capture.
+     */
+    long[] earliestSchedule () {
+        return this.schedule(this.earliest);
+    }
+    
+    /**
+     * As for earliestSchedule, scheduling every meeting at its latest date also
+     * satisfies all of the difference constraints.
+     * @return The epoch day of each meeting in the latest schedule, or null if
+     *         the problem has constraints the network does not capture.
+     */
+    long[] latestSchedule () {
+        return this.schedule(this.latest);
+    }
+    
+    /**
+     * @param bounds The earliest or latest date of each meeting
+     * @return A copy of the bounds if they make a schedule of a problem made only of
+     *         difference constraints, within the meetings' domains, or null otherwise
+     */
+    private long[] schedule (long[] bounds) {
+        if (!this.consistent || !this.simple) { return null; }
+        for (int i = 0; i < this.n; i++) {
+            if (!this.domains[i].containsDay(bounds[i])) {
+                return null;
+            }
+        }
+        return bounds.clone();
+    }
+    
+    /**
+     * Adds the edge from -> to of the given weight, standing for x_to - x_from <= weight.
+     * @param from The source node
+     * @param to The target node
+     * @param weight The weight of the edge
+     */
+    private void addEdge (int from, int to, long weight) {
+        if (this.edges == this.from.length) {
+            this.from = Arrays.copyOf(this.from, 2 * this.edges);
+            this.to = Arrays.copyOf(this.to, 2 * this.edges);
+            this.weight = Arrays.copyOf(this.weight, 2 * this.edges);
+        }
+        this.from[this.edges] = from;
+        this.to[this.edges] = to;
+        this.weight[this.edges] = weight;
+        this.edges++;
+    }
+    
+    /**
+     * Bellman-Ford from the origin node, in the graph or its reverse.
+     * @param dist Filled with the distance of each node from (or, reversed, to) the origin
+     * @param reversed Whether to follow edges backwards
+     * @return false if a negative cycle was found, true otherwise
+     */
+    private boolean shortestPaths (long[] dist, boolean reversed) {
+        int[] src = reversed ? this.to : this.from, dst = reversed ? this.from : this.to;
+        Arrays.fill(dist, INF);
+        dist[this.n] = 0;
+        for (int pass = 0; pass <= this.n; pass++) {
+            boolean changed = false;
+            for (int e = 0; e < this.edges; e++) {
+                long d = dist[src[e]];
+                if (d != INF && d + this.weight[e] < dist[dst[e]]) {
+                    dist[dst[e]] = d + this.weight[e];
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,56 @@
+package main.csp;
+
+import java.util.*;
+
+/**
+ * Undo stack of the runs of dates removed from EpochDaySets during search.
+ * Each decision level takes a mark before filtering domains in place, and
+ * backtracking out of it adds back every run recorded since that mark, so
+ * that restoring the domains costs time proportional to what changed rather
+ * than a copy of every domain.
+ */
+class Trail {
+    
+    private EpochDaySet[] sets = new EpochDaySet[16];
+    private long[] lo = new long[16], hi = new long[16];
+    private int size;
+    
+    /**
+     * Records that every day in [lo, hi], all of them members, is about to be
+     * removed from the given set.
+     * @param set The set the days are removed from
+     * @param lo The first epoch day removed
+     * @param hi The last epoch day removed
+     */
+    void push (EpochDaySet set, long lo, long hi) {
+        if (this.size == this.sets.length) {
+            this.sets = Arrays.copyOf(this.sets, 2 * this.size);
+            this.lo = Arrays.copyOf(this.lo, 2 * this.size);
+            this.hi = Arrays.copyOf(this.hi, 2 * this.size);
+        }
+        this.sets[this.size] = set;
+        this.lo[this.size] = lo;
+        this.hi[this.size] = hi;
+        this.size++;
+    }
+    
+    /**
+     * @return A mark that undo can later return the sets to
+     */
+    int mark () {
+        return this.size;
+    }
+    
+    /**
+     * Adds back every run removed since the given mark, most recent first.
+     * @param mark A mark previously returned by mark()
+     */
+    void undo (int mark) {
+        while (this.size > mark) {
+            this.size--;
+            this.sets[this.size].addRange(this.lo[this.size], this.hi[this.size]);
+            this.sets[this.size] = null;
+        }
+    }
+
+}
@@ -15,6 +15,7 @@ import java.util.*;
 public class UnaryDateConstraint extends DateConstraint {
 
     public final LocalDate R_VAL;
+    public final long R_DAY;
     
     /**
      * Constructs a new UnaryDateConstraint of the format:
@@ -22,11 +23,12 @@ public class UnaryDateConstraint extends DateConstraint {
      * ...where:
      * @param lVal A meeting index
      * @param operator Operator comparing the mentioned lVal meeting to some date
-     * @param rVal A date compared to the meeting in lVal
+     * @param rVal A date compared to the meeting in lVal (also kept as the epoch day R_DAY)
      */
     public UnaryDateConstraint (int lVal, String operator, LocalDate rVal) {
         super(lVal, operator, 1);
         this.R_VAL = rVal;
+        this.R_DAY = rVal.toEpochDay();
     }
     
     @Override
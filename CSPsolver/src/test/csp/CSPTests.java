@@ -10,8 +10,10 @@ import org.junit.rules.TestWatcher;
 import org.junit.rules.Timeout;
 import org.junit.runner.Description;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Collectors;
 import main.csp.*;
 import static main.csp.CSPSolver.*;
 
@@ -77,6 +79,40 @@ public class CSPTests {
         }
     }
     
+    /**
+     * Counts the solutions of a small CSP by trying every assignment of dates.
+     * @param n Number of meeting variables in this CSP.
+     * @param startRange Start date for the range of each variable's domain.
+     * @param endRange End date for the range of each variable's domain.
+     * @param constraints The set of constraints the solutions must satisfy
+     * @return The number of assignments satisfying every constraint.
+     */
+    public static long bruteForceCount (int n, LocalDate startRange, LocalDate endRange, Set<DateConstraint> constraints) {
+        int span = (int) (endRange.toEpochDay() - startRange.toEpochDay() + 1);
+        int[] offsets = new int[n];
+        long count = 0;
+        while (true) {
+            List<LocalDate> soln = new ArrayList<>();
+            for (int offset : offsets) {
+                soln.add(startRange.plusDays(offset));
+            }
+            boolean satisfied = true;
+            for (DateConstraint d : constraints) {
+                LocalDate rightDate = (d.arity() == 1)
+                    ? ((UnaryDateConstraint) d).R_VAL
+                    : soln.get(((BinaryDateConstraint) d).R_VAL);
+                satisfied &= d.isSatisfiedBy(soln.get(d.L_VAL), rightDate);
+            }
+            if (satisfied) { count++; }
+            
+            int i = 0;
+            while (i < n && ++offsets[i] == span) {
+                offsets[i++] = 0;
+            }
+            if (i == n) { return count; }
+        }
+    }
+    
     /**
      * Helper method for generating uniform domains for tests.
      * @param n Number of meeting variables in this CSP.
@@ -325,6 +361,97 @@ public class CSPTests {
         assertEquals(2, domains.get(2).domainValues.size());
     }
     
+    @Test
+    public void filtering_t10() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < 39; i++) {
+            constraints.add(new BinaryDateConstraint(i, "<", i + 1));
+        }
+        
+        LocalDate startRange = LocalDate.of(2022, 1, 1),
+                  endRange   = LocalDate.of(2022, 2, 9);
+        
+        // A chain of 40 meetings over 40 days leaves each exactly one day,
+        // but only once pruning has travelled back and forth along the chain
+        List<MeetingDomain> domains = generateDomains(40, startRange, endRange);
+        
+        arcConsistency(domains, constraints);
+        
+        for (int i = 0; i < 40; i++) {
+            assertEquals(1, domains.get(i).domainValues.size());
+            assertTrue(domains.get(i).domainValues.contains(startRange.plusDays(i)));
+        }
+    }
+    
+    @Test
+    public void filtering_t11() {
+        Set<DateConstraint> constraints = new HashSet<>(
+            Arrays.asList(
+                new BinaryDateConstraint(0, "!=", 1),
+                new BinaryDateConstraint(1, "<", 2),
+                new BinaryDateConstraint(2, "==", 3),
+                new BinaryDateConstraint(3, ">=", 0),
+                new UnaryDateConstraint(2, "<=", LocalDate.of(2022, 1, 3)),
+                new UnaryDateConstraint(0, ">=", LocalDate.of(2022, 1, 3))
+            )
+        );
+        
+        LocalDate startRange = LocalDate.of(2022, 1, 1),
+                  endRange   = LocalDate.of(2022, 1, 5);
+        
+        // AC-2001 must reach the same fixpoint as AC-3
+        List<MeetingDomain> ac3 = generateDomains(4, startRange, endRange),
+                            ac2001 = generateDomains(4, startRange, endRange);
+        
+        nodeConsistency(ac3, constraints);
+        arcConsistency(ac3, constraints, SolverOptions.Propagation.AC3);
+        nodeConsistency(ac2001, constraints);
+        arcConsistency(ac2001, constraints, SolverOptions.Propagation.AC2001);
+        
+        for (int i = 0; i < 4; i++) {
+            assertEquals(ac3.get(i).domainValues, ac2001.get(i).domainValues);
+        }
+        assertEquals(1, ac2001.get(0).domainValues.size());
+        assertTrue(ac2001.get(3).domainValues.contains(LocalDate.of(2022, 1, 3)));
+    }
+    
+    @Test
+    public void filtering_t12() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < 299; i++) {
+            constraints.add(new BinaryDateConstraint(i, "<", i + 1));
+            constraints.add(new BinaryDateConstraint(i, "!=", (i + 7) % 300));
+        }
+        
+        LocalDate startRange = LocalDate.of(2022, 1, 1),
+                  endRange   = LocalDate.of(2022, 12, 31);
+        
+        // A 300-meeting precedence chain over a year, revised on bounds
+        // rather than by comparing every pair of days
+        List<MeetingDomain> domains = generateDomains(300, startRange, endRange);
+        
+        arcConsistency(domains, constraints, SolverOptions.Propagation.BOUNDS);
+        
+        for (int i = 0; i < 300; i++) {
+            assertEquals(66, domains.get(i).domainValues.size());
+            assertTrue(domains.get(i).domainValues.contains(startRange.plusDays(i)));
+            assertTrue(domains.get(i).domainValues.contains(endRange.minusDays(299 - i)));
+        }
+        
+        // ... and reaching the same result as AC-3 on a shorter prefix of the chain
+        Set<DateConstraint> prefix = new HashSet<>();
+        for (int i = 0; i < 9; i++) {
+            prefix.add(new BinaryDateConstraint(i, "<", i + 1));
+        }
+        List<MeetingDomain> scanned = generateDomains(10, startRange, endRange);
+        domains = generateDomains(10, startRange, endRange);
+        arcConsistency(domains, prefix, SolverOptions.Propagation.BOUNDS);
+        arcConsistency(scanned, prefix, SolverOptions.Propagation.AC3);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(scanned.get(i).domainValues, domains.get(i).domainValues);
+        }
+    }
+    
     
     // CSPSolver Tests
     // -------------------------------------------------
@@ -578,4 +705,911 @@ public class CSPTests {
         testSolution(solution, constraints);
     }
     
+    @Test
+    public void solve_t10() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < 49; i++) {
+            constraints.add(new BinaryDateConstraint(i, "<", i + 1));
+        }
+        constraints.add(new UnaryDateConstraint(49, "<=", LocalDate.of(2020, 2, 19)));
+        
+        // A 50-meeting precedence chain over a decade-long horizon in which
+        // the deadline on the last meeting leaves exactly one schedule
+        List<LocalDate> solution = solve(
+            50,
+            LocalDate.of(2020, 1, 1),
+            LocalDate.of(2030, 12, 31),
+            constraints
+        );
+        
+        testSolution(solution, constraints);
+        assertEquals(LocalDate.of(2020, 1, 1), solution.get(0));
+    }
+    
+    @Test
+    public void solve_t11() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < 300; i++) {
+            constraints.add(new BinaryDateConstraint((i + 1) % 300, "!=", i));
+        }
+        
+        // Hundreds of meetings in a ring where each one only touches its two
+        // neighbors, alternating between 2 days (possible, since the ring is even)
+        List<LocalDate> solution = solve(
+            300,
+            LocalDate.of(2022, 1, 1),
+            LocalDate.of(2022, 1, 2),
+            constraints
+        );
+        
+        testSolution(solution, constraints);
+    }
+    
+    @Test
+    public void solve_t12() {
+        Set<DateConstraint> constraints = new HashSet<>(
+            Arrays.asList(
+                new UnaryDateConstraint(0, ">", LocalDate.of(2022, 1, 1)),
+                new UnaryDateConstraint(1, ">", LocalDate.of(2022, 2, 1)),
+                new UnaryDateConstraint(2, ">", LocalDate.of(2022, 3, 1)),
+                new UnaryDateConstraint(3, ">", LocalDate.of(2022, 4, 1)),
+                new UnaryDateConstraint(4, ">", LocalDate.of(2022, 5, 1)),
+                new BinaryDateConstraint(0, ">", 4),
+                new BinaryDateConstraint(1, ">", 3),
+                new BinaryDateConstraint(2, "!=", 3),
+                new BinaryDateConstraint(4, "!=", 0),
+                new BinaryDateConstraint(3, ">", 2)
+            )
+        );
+        
+        // Same as solve_t9, propagated with AC-2001 instead of AC-3
+        SolverOptions options = new SolverOptions();
+        options.propagation = SolverOptions.Propagation.AC2001;
+        List<LocalDate> solution = solve(
+            5,
+            LocalDate.of(2022, 1, 1),
+            LocalDate.of(2022, 6, 30),
+            constraints,
+            options
+        );
+        
+        testSolution(solution, constraints);
+    }
+    
+    @Test
+    public void solve_t13() {
+        Set<DateConstraint> constraints = new HashSet<>(
+            Arrays.asList(
+                new BinaryDateConstraint(0, "<", 1),
+                new BinaryDateConstraint(1, "<=", 2),
+                new BinaryDateConstraint(2, "==", 3),
+                new BinaryDateConstraint(3, "<", 0)
+            )
+        );
+        
+        // A precedence cycle is impossible however long the horizon is
+        List<LocalDate> solution = solve(
+            4,
+            LocalDate.of(2000, 1, 1),
+            LocalDate.of(2099, 12, 31),
+            constraints
+        );
+        
+        assertNull(solution);
+    }
+    
+    @Test
+    public void solve_t14() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 1; i < 500; i++) {
+            constraints.add(new BinaryDateConstraint(i, ">", (i - 1) / 2));
+            constraints.add(new BinaryDateConstraint(i, ">=", i / 3));
+            constraints.add(new UnaryDateConstraint(i, "<", LocalDate.of(2022, 3, 1)));
+        }
+        constraints.add(new UnaryDateConstraint(0, ">=", LocalDate.of(2022, 1, 10)));
+        constraints.add(new BinaryDateConstraint(42, "==", 57));
+        
+        // A 500-meeting tree of precedences and deadlines (a Simple Temporal
+        // Network), in which every meeting can take its earliest possible date
+        List<LocalDate> solution = solve(
+            500,
+            LocalDate.of(2022, 1, 1),
+            LocalDate.of(2022, 12, 31),
+            constraints
+        );
+        
+        testSolution(solution, constraints);
+        assertEquals(LocalDate.of(2022, 1, 10), solution.get(0));
+        assertEquals(LocalDate.of(2022, 1, 11), solution.get(1));
+    }
+    
+    @Test
+    public void solve_t15() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < 60; i++) {
+            // Three teams of 20 meetings, each team's meetings on the same day
+            if (i % 20 != 0) {
+                constraints.add(new BinaryDateConstraint(i, "==", i - 1));
+            }
+            constraints.add(new BinaryDateConstraint(i, "!=", (i + 20) % 60));
+        }
+        constraints.add(new UnaryDateConstraint(7, "!=", LocalDate.of(2022, 1, 1)));
+        constraints.add(new UnaryDateConstraint(45, ">", LocalDate.of(2022, 1, 2)));
+        
+        List<LocalDate> solution = solve(
+            60,
+            LocalDate.of(2022, 1, 1),
+            LocalDate.of(2022, 1, 3),
+            constraints
+        );
+        
+        testSolution(solution, constraints);
+        assertEquals(LocalDate.of(2022, 1, 3), solution.get(40));
+        assertEquals(LocalDate.of(2022, 1, 2), solution.get(0));
+    }
+    
+    @Test
+    public void solve_t16() {
+        Set<DateConstraint> constraints = new HashSet<>(
+            Arrays.asList(
+                new BinaryDateConstraint(0, "==", 1),
+                new BinaryDateConstraint(1, "==", 2),
+                new BinaryDateConstraint(2, "!=", 0)
+            )
+        );
+        
+        // Meetings forced onto the same day can't also be on different days
+        List<LocalDate> solution = solve(
+            3,
+            LocalDate.of(2022, 1, 1),
+            LocalDate.of(2022, 1, 5),
+            constraints
+        );
+        
+        assertNull(solution);
+    }
+    
+    @Test
+    public void solve_t17() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int d = 0; d < 50; d++) {
+            // 50 unrelated departments of 4 meetings, each on a different day
+            for (int i = 0; i < 4; i++) {
+                for (int j = i + 1; j < 4; j++) {
+                    constraints.add(new BinaryDateConstraint(4 * d + i, "!=", 4 * d + j));
+                }
+            }
+            constraints.add(new UnaryDateConstraint(4 * d + d % 4, "==", LocalDate.of(2022, 1, 1)));
+        }
+        
+        SolverOptions options = new SolverOptions();
+        options.parallelComponents = true;
+        List<LocalDate> solution = solve(
+            200,
+            LocalDate.of(2022, 1, 1),
+            LocalDate.of(2022, 1, 4),
+            constraints,
+            options
+        );
+        
+        testSolution(solution, constraints);
+        
+        // ... and one department that can't be scheduled sinks them all
+        constraints.add(new BinaryDateConstraint(199, "<", 198));
+        constraints.add(new BinaryDateConstraint(198, "<", 197));
+        constraints.add(new BinaryDateConstraint(197, "<", 196));
+        constraints.add(new UnaryDateConstraint(199, ">", LocalDate.of(2022, 1, 1)));
+        solution = solve(
+            200,
+            LocalDate.of(2022, 1, 1),
+            LocalDate.of(2022, 1, 4),
+            constraints,
+            options
+        );
+        
+        assertNull(solution);
+    }
+    
+    @Test
+    public void solve_t18() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            for (int j = i + 1; j < 10; j++) {
+                constraints.add(new BinaryDateConstraint(i, "!=", j));
+            }
+            if (i > 0) {
+                constraints.add(new BinaryDateConstraint(i, ">=", i - 1));
+            }
+        }
+        constraints.add(new UnaryDateConstraint(4, "!=", LocalDate.of(2022, 1, 5)));
+        
+        // Ten meetings on ten different, ascending days, except that the fifth
+        // can't be on the fifth day (impossible), with every search mode: backtracking,
+        // forward checking and MAC
+        for (SolverOptions.Search search : SolverOptions.Search.values()) {
+            SolverOptions options = new SolverOptions();
+            options.search = search;
+            List<LocalDate> solution = solve(
+                10,
+                LocalDate.of(2022, 1, 1),
+                LocalDate.of(2022, 1, 10),
+                constraints,
+                options
+            );
+            
+            assertNull(solution);
+        }
+    }
+    
+    @Test
+    public void solve_t19() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            for (int j = i + 1; j < 12; j++) {
+                constraints.add(new BinaryDateConstraint(i, "!=", j));
+            }
+        }
+        for (int i = 0; i < 11; i += 2) {
+            constraints.add(new BinaryDateConstraint(i, ">", i + 1));
+        }
+        constraints.add(new UnaryDateConstraint(0, "<", LocalDate.of(2022, 1, 3)));
+        
+        // Twelve meetings on twelve days, in decreasing pairs, with MAC
+        // under each of the propagation algorithms
+        for (SolverOptions.Propagation propagation : SolverOptions.Propagation.values()) {
+            SolverOptions options = new SolverOptions();
+            options.search = SolverOptions.Search.MAINTAIN_ARC_CONSISTENCY;
+            options.propagation = propagation;
+            List<LocalDate> solution = solve(
+                12,
+                LocalDate.of(2022, 1, 1),
+                LocalDate.of(2022, 1, 12),
+                constraints,
+                options
+            );
+            
+            testSolution(solution, constraints);
+            assertEquals(LocalDate.of(2022, 1, 2), solution.get(0));
+        }
+    }
+    
+    @Test
+    public void solve_t20() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < 9; i++) {
+            for (int j = i + 1; j < 9; j++) {
+                constraints.add(new BinaryDateConstraint(i, "!=", j));
+            }
+        }
+        constraints.add(new BinaryDateConstraint(8, "<", 7));
+        constraints.add(new BinaryDateConstraint(7, "<", 6));
+        constraints.add(new UnaryDateConstraint(6, "<", LocalDate.of(2022, 1, 4)));
+        constraints.add(new UnaryDateConstraint(0, ">", LocalDate.of(2022, 1, 8)));
+        
+        // Nine meetings on nine days, the last three of them forced onto the first
+        // three days, under every variable ordering and search algorithm
+        for (SolverOptions.VariableOrder order : SolverOptions.VariableOrder.values()) {
+            for (SolverOptions.Search search : SolverOptions.Search.values()) {
+                SolverOptions options = new SolverOptions();
+                options.variableOrder = order;
+                options.search = search;
+                List<LocalDate> solution = solve(
+                    9,
+                    LocalDate.of(2022, 1, 1),
+                    LocalDate.of(2022, 1, 9),
+                    constraints,
+                    options
+                );
+                
+                testSolution(solution, constraints);
+                assertEquals(LocalDate.of(2022, 1, 1), solution.get(8));
+                assertEquals(LocalDate.of(2022, 1, 9), solution.get(0));
+            }
+        }
+    }
+    
+    @Test
+    public void solve_t21() {
+        Set<DateConstraint> constraints = new HashSet<>(
+            Arrays.asList(
+                new BinaryDateConstraint(0, "<", 1),
+                new BinaryDateConstraint(1, "!=", 2),
+                new BinaryDateConstraint(2, "<=", 3),
+                new BinaryDateConstraint(0, "!=", 3)
+            )
+        );
+        LocalDate startRange = LocalDate.of(2022, 1, 1),
+                  endRange   = LocalDate.of(2022, 1, 6);
+        
+        // Earliest dates first, latest dates first...
+        SolverOptions options = new SolverOptions();
+        options.valueOrder = SolverOptions.ValueOrder.ASCENDING;
+        List<LocalDate> solution = solve(4, startRange, endRange, constraints, options);
+        testSolution(solution, constraints);
+        assertEquals(startRange, solution.get(0));
+        
+        options.valueOrder = SolverOptions.ValueOrder.DESCENDING;
+        solution = solve(4, startRange, endRange, constraints, options);
+        testSolution(solution, constraints);
+        assertEquals(endRange, solution.get(3));
+        
+        // ... also when the temporal network alone solves the problem...
+        Set<DateConstraint> precedence = new HashSet<>(Arrays.asList(new BinaryDateConstraint(0, "<", 1)));
+        assertEquals(
+            Arrays.asList(LocalDate.of(2022, 1, 5), LocalDate.of(2022, 1, 6)),
+            solve(2, startRange, endRange, precedence, options)
+        );
+        options.valueOrder = SolverOptions.ValueOrder.ASCENDING;
+        assertEquals(
+            Arrays.asList(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 2)),
+            solve(2, startRange, endRange, precedence, options)
+        );
+        options.valueOrder = SolverOptions.ValueOrder.RANDOM;
+        testSolution(solve(2, startRange, endRange, precedence, options), precedence);
+        
+        // ... least constraining first, and the same shuffle for the same seed
+        options.valueOrder = SolverOptions.ValueOrder.LEAST_CONSTRAINING;
+        testSolution(solve(4, startRange, endRange, constraints, options), constraints);
+        
+        options.valueOrder = SolverOptions.ValueOrder.RANDOM;
+        options.seed = 42;
+        solution = solve(4, startRange, endRange, constraints, options);
+        testSolution(solution, constraints);
+        assertEquals(solution, solve(4, startRange, endRange, constraints, options));
+    }
+    
+    @Test
+    public void solve_t22() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            constraints.add(new BinaryDateConstraint(i, "!=", i + 1));
+        }
+        
+        // Alternating days along a chain of 20001 meetings, one search frame each
+        SolverOptions options = new SolverOptions();
+        options.variableOrder = SolverOptions.VariableOrder.INDEX;
+        List<LocalDate> solution = solve(
+            20001,
+            LocalDate.of(2022, 1, 1),
+            LocalDate.of(2022, 1, 2),
+            constraints,
+            options
+        );
+        
+        testSolution(solution, constraints);
+    }
+    
+    @Test
+    public void solve_t23() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 1; i < 15; i++) {
+            constraints.add(new BinaryDateConstraint(i - 1, "!=", i));
+            constraints.add(new UnaryDateConstraint(i, ">", LocalDate.of(2022, 1, 3)));
+        }
+        int[] crowd = {0, 15, 16, 17};
+        for (int i = 0; i < crowd.length; i++) {
+            for (int j = i + 1; j < crowd.length; j++) {
+                constraints.add(new BinaryDateConstraint(crowd[i], "!=", crowd[j]));
+            }
+            constraints.add(new UnaryDateConstraint(crowd[i], "<=", LocalDate.of(2022, 1, 3)));
+        }
+        constraints.add(new BinaryDateConstraint(14, "!=", 15));
+        
+        // Four meetings can't fit in the first three days, which backjumping finds
+        // without retrying the meetings in between, assigned in index order
+        for (SolverOptions.Search search : Arrays.asList(SolverOptions.Search.BACKTRACKING, SolverOptions.Search.FORWARD_CHECKING)) {
+            SolverOptions options = new SolverOptions();
+            options.search = search;
+            options.variableOrder = SolverOptions.VariableOrder.INDEX;
+            options.backjumping = true;
+            List<LocalDate> solution = solve(
+                18,
+                LocalDate.of(2022, 1, 1),
+                LocalDate.of(2022, 1, 8),
+                constraints,
+                options
+            );
+            
+            assertNull(solution);
+        }
+    }
+    
+    @Test
+    public void solve_t24() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int w = 0; w < 6; w++) {
+            // Six weeks of five meetings that only fit in four days, each week
+            // chained to the next, so the same dead end recurs week after week
+            for (int i = 0; i < 5; i++) {
+                for (int j = i + 1; j < 5; j++) {
+                    constraints.add(new BinaryDateConstraint(5 * w + i, "!=", 5 * w + j));
+                }
+            }
+            if (w > 0) {
+                constraints.add(new BinaryDateConstraint(5 * w, "!=", 5 * w - 1));
+            }
+        }
+        
+        // Learning from every search algorithm, in a store too small for all nogoods
+        for (SolverOptions.Search search : SolverOptions.Search.values()) {
+            SolverOptions options = new SolverOptions();
+            options.search = search;
+            options.learnNogoods = true;
+            options.nogoodCapacity = 8;
+            List<LocalDate> solution = solve(
+                30,
+                LocalDate.of(2022, 1, 1),
+                LocalDate.of(2022, 1, 4),
+                constraints,
+                options
+            );
+            
+            assertNull(solution);
+        }
+        
+        // ... and with a fifth day, a schedule exists after all
+        SolverOptions options = new SolverOptions();
+        options.learnNogoods = true;
+        List<LocalDate> solution = solve(
+            30,
+            LocalDate.of(2022, 1, 1),
+            LocalDate.of(2022, 1, 5),
+            constraints,
+            options
+        );
+        
+        testSolution(solution, constraints);
+    }
+    
+    @Test
+    public void solve_t25() {
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            for (int j = i + 1; j < 12; j++) {
+                if ((i + j) % 3 != 0) {
+                    constraints.add(new BinaryDateConstraint(i, "!=", j));
+                }
+            }
+        }
+        constraints.add(new BinaryDateConstraint(0, "<", 11));
+        
+        // Restarting after every single failure at first, so that a solution
+        // (or the proof that there is none) spans many runs
+        for (SolverOptions.Restarts restarts : SolverOptions.Restarts.values()) {
+            SolverOptions options = new SolverOptions();
+            options.restarts = restarts;
+            options.restartBase = 1;
+            options.seed = 7;
+            options.valueOrder = SolverOptions.ValueOrder.LEAST_CONSTRAINING;
+            List<LocalDate> solution = solve(
+                12,
+                LocalDate.of(2022, 1, 1),
+                LocalDate.of(2022, 1, 8),
+                constraints,
+                options
+            );
+            testSolution(solution, constraints);
+            
+            options.learnNogoods = true;
+            solution = solve(
+                12,
+                LocalDate.of(2022, 1, 1),
+                LocalDate.of(2022, 1, 3),
+                constraints,
+                options
+            );
+            assertNull(solution);
+        }
+    }
+    
+    @Test
+    public void solve_t26() {
+        Set<DateConstraint> constraints = new HashSet<>(
+            Arrays.asList(
+                new BinaryDateConstraint(0, "<", 1),
+                new BinaryDateConstraint(1, "!=", 2),
+                new BinaryDateConstraint(2, "==", 3),
+                new BinaryDateConstraint(4, ">=", 5),
+                new UnaryDateConstraint(5, "!=", LocalDate.of(2022, 1, 2))
+            )
+        );
+        LocalDate startRange = LocalDate.of(2022, 1, 1),
+                  endRange   = LocalDate.of(2022, 1, 4);
+        
+        // Every solution, once each, across two components and an equality class...
+        Set<List<LocalDate>> seen = new HashSet<>();
+        Iterator<List<LocalDate>> it = solutions(6, startRange, endRange, constraints).iterator();
+        while (it.hasNext()) {
+            List<LocalDate> solution = it.next();
+            testSolution(solution, constraints);
+            assertTrue(seen.add(solution));
+        }
+        assertEquals(bruteForceCount(6, startRange, endRange, constraints), seen.size());
+        
+        // ... also without any presolving, and only as far as they are asked for
+        SolverOptions options = new SolverOptions();
+        options.mergeEqualities = false;
+        options.decompose = false;
+        options.temporalNetwork = false;
+        options.search = SolverOptions.Search.BACKTRACKING;
+        assertEquals(seen.size(), solutions(6, startRange, endRange, constraints, options).count());
+        assertEquals(3, solutions(6, startRange, endRange, constraints, options).limit(3).count());
+        
+        constraints.add(new BinaryDateConstraint(3, "<", 2));
+        assertEquals(0, solutions(6, startRange, endRange, constraints).count());
+    }
+    
+    @Test
+    public void solve_t27() {
+        Set<DateConstraint> constraints = new HashSet<>(
+            Arrays.asList(
+                new BinaryDateConstraint(0, "<", 1),
+                new BinaryDateConstraint(1, "!=", 2),
+                new BinaryDateConstraint(2, "==", 3),
+                new BinaryDateConstraint(4, ">=", 5),
+                new BinaryDateConstraint(5, "!=", 6),
+                new UnaryDateConstraint(5, "!=", LocalDate.of(2022, 1, 2))
+            )
+        );
+        LocalDate startRange = LocalDate.of(2022, 1, 1),
+                  endRange   = LocalDate.of(2022, 1, 4);
+        
+        // Same count as trying every assignment, whatever the search algorithm...
+        long expected = bruteForceCount(7, startRange, endRange, constraints);
+        for (SolverOptions.Search search : SolverOptions.Search.values()) {
+            SolverOptions options = new SolverOptions();
+            options.search = search;
+            assertEquals(expected, countSolutions(7, startRange, endRange, constraints, options));
+            options.decompose = false;
+            options.mergeEqualities = false;
+            assertEquals(expected, countSolutions(7, startRange, endRange, constraints, options));
+        }
+        
+        // ... and counts far too many to enumerate: 30 meetings on alternating days of
+        // a week in a chain (7 * 6^29 > 2^63), and two chains of 150 (each 2 ways)
+        constraints.clear();
+        for (int i = 0; i < 29; i++) {
+            constraints.add(new BinaryDateConstraint(i, "!=", i + 1));
+        }
+        assertEquals(Long.MAX_VALUE, countSolutions(30, startRange, LocalDate.of(2022, 1, 7), constraints));
+        constraints.clear();
+        for (int i = 0; i < 299; i++) {
+            if (i != 149) {
+                constraints.add(new BinaryDateConstraint(i, "!=", i + 1));
+            }
+        }
+        assertEquals(4, countSolutions(300, startRange, LocalDate.of(2022, 1, 2), constraints));
+    }
+    
+    @Test
+    public void solve_t28() {
+        Set<DateConstraint> constraints = new HashSet<>(
+            Arrays.asList(
+                new BinaryDateConstraint(0, "<", 1),
+                new BinaryDateConstraint(1, "!=", 2),
+                new BinaryDateConstraint(2, "==", 3),
+                new BinaryDateConstraint(4, ">=", 5),
+                new BinaryDateConstraint(5, "!=", 0),
+                new UnaryDateConstraint(3, ">", LocalDate.of(2022, 1, 2)),
+                new UnaryDateConstraint(5, "!=", LocalDate.of(2022, 1, 2))
+            )
+        );
+        LocalDate startRange = LocalDate.of(2022, 1, 1),
+                  endRange   = LocalDate.of(2022, 1, 5);
+        
+        // Each objective's optimum is the least cost of any solution, whatever the search...
+        for (Objective objective : Arrays.asList(Objective.EARLIEST_FINISH, Objective.SPREAD, Objective.DAYS_USED)) {
+            long best = solutions(6, startRange, endRange, constraints)
+                .mapToLong(s -> objective.cost(s.stream().mapToLong(LocalDate::toEpochDay).toArray()))
+                .min().getAsLong();
+            for (SolverOptions.Search search : SolverOptions.Search.values()) {
+                SolverOptions options = new SolverOptions();
+                options.search = search;
+                for (boolean merge : new boolean[] {true, false}) {
+                    options.mergeEqualities = merge;
+                    List<LocalDate> solution = optimize(6, startRange, endRange, constraints, objective, options);
+                    testSolution(solution, constraints);
+                    assertEquals(best, objective.cost(solution.stream().mapToLong(LocalDate::toEpochDay).toArray()));
+                }
+            }
+        }
+        
+        // ... such as every meeting on the 3rd or 4th of January, or all over by the 3rd
+        List<LocalDate> solution = optimize(6, startRange, endRange, constraints, Objective.DAYS_USED);
+        assertEquals(2, new HashSet<>(solution).size());
+        assertEquals(LocalDate.of(2022, 1, 3).toEpochDay(), Objective.EARLIEST_FINISH.cost(
+            optimize(6, startRange, endRange, constraints, Objective.EARLIEST_FINISH).stream().mapToLong(LocalDate::toEpochDay).toArray()
+        ));
+        
+        constraints.add(new BinaryDateConstraint(3, "<", 2));
+        assertNull(optimize(6, startRange, endRange, constraints, Objective.SPREAD));
+    }
+    
+    @Test
+    public void solve_t29() {
+        // 10 meetings on different days of a 9-day range: infeasible, but only
+        // after a search that tries every way of fitting 9 of them
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            for (int j = i + 1; j < 10; j++) {
+                constraints.add(new BinaryDateConstraint(i, "!=", j));
+            }
+        }
+        LocalDate startRange = LocalDate.of(2022, 1, 1),
+                  endRange   = LocalDate.of(2022, 1, 9);
+        
+        // Out of dead ends or out of assignments, the search stops with a consistent
+        // partial assignment...
+        Budget fails = new Budget(), nodes = new Budget(), time = new Budget();
+        fails.fails = 1000;
+        nodes.nodes = 1000;
+        for (Budget budget : Arrays.asList(fails, nodes)) {
+            SolveResult result = solve(10, startRange, endRange, constraints, new SolverOptions(), budget);
+            assertEquals(SolveResult.Status.TIMEOUT, result.STATUS);
+            assertEquals(10, result.SOLUTION.size());
+            assertTrue(result.SOLUTION.contains(null));
+            assertTrue(result.SOLUTION.stream().filter(Objects::nonNull).count() >= 8);
+            assertEquals(result.SOLUTION.stream().filter(Objects::nonNull).count(),
+                         result.SOLUTION.stream().filter(Objects::nonNull).distinct().count());
+        }
+        
+        // ... as it does out of time, unless it could finish first on a fast machine...
+        time.deadline = Instant.now().plusMillis(100);
+        SolveResult timed = solve(10, startRange, endRange, constraints, new SolverOptions(), time);
+        assertTrue(timed.STATUS == SolveResult.Status.TIMEOUT || timed.STATUS == SolveResult.Status.UNSAT);
+        
+        // ... and always if its time was up before it started
+        time.deadline = Instant.now().minusSeconds(1);
+        assertEquals(SolveResult.Status.TIMEOUT, solve(10, startRange, endRange, constraints, new SolverOptions(), time).STATUS);
+        
+        // ... but within budget it solves, or proves unsatisfiable
+        SolveResult result = solve(9, startRange, endRange, constraints.stream()
+            .filter(c -> c.L_VAL < 9 && ((BinaryDateConstraint) c).R_VAL < 9)
+            .collect(Collectors.toSet()), new SolverOptions(), fails);
+        assertEquals(SolveResult.Status.SOLVED, result.STATUS);
+        assertFalse(result.SOLUTION.contains(null));
+        constraints.add(new BinaryDateConstraint(0, "==", 1));
+        result = solve(10, startRange, endRange, constraints, new SolverOptions(), nodes);
+        assertEquals(SolveResult.Status.UNSAT, result.STATUS);
+        assertNull(result.SOLUTION);
+    }
+    
+    @Test
+    public void solve_t30() throws InterruptedException {
+        // 12 meetings on different days of an 11-day range, whose search would
+        // run for far longer than the test is allowed
+        Set<DateConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            for (int j = i + 1; j < 12; j++) {
+                constraints.add(new BinaryDateConstraint(i, "!=", j));
+            }
+        }
+        LocalDate startRange = LocalDate.of(2022, 1, 1),
+                  endRange   = LocalDate.of(2022, 1, 11);
+        
+        // Cancelled from another thread, whatever the search...
+        for (SolverOptions.Search search : SolverOptions.Search.values()) {
+            SolverOptions options = new SolverOptions();
+            options.search = search;
+            Budget budget = new Budget();
+            budget.cancellation = new CancellationToken();
+            Thread canceller = new Thread(() -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {}
+                budget.cancellation.cancel();
+            });
+            canceller.start();
+            SolveResult result = solve(12, startRange, endRange, constraints, options, budget);
+            canceller.join();
+            assertEquals(SolveResult.Status.CANCELLED, result.STATUS);
+            assertTrue(result.SOLUTION.contains(null));
+        }
+        
+        // ... or by interrupting the calling thread
+        Budget budget = new Budget();
+        Thread.currentThread().interrupt();
+        SolveResult result = solve(12, startRange, endRange, constraints, new SolverOptions(), budget);
+        assertTrue(Thread.interrupted());
+        assertEquals(SolveResult.Status.CANCELLED, result.STATUS);
+        assertEquals(12, result.SOLUTION.size());
+        
+        // A cancelled token stops every solve holding it, but uncancelled does nothing
+        budget.cancellation = new CancellationToken();
+        assertEquals(SolveResult.Status.SOLVED, solve(3, startRange, endRange, constraints.stream()
+            .filter(c -> c.L_VAL < 3 && ((BinaryDateConstraint) c).R_VAL < 3)
+            .collect(Collectors.toSet()), new SolverOptions(), budget).STATUS);
+        budget.cancellation.cancel();
+        assertEquals(SolveResult.Status.CANCELLED, solve(12, startRange, endRange, constraints, new SolverOptions(), budget).STATUS);
+    }
+    
+    @Test
+    public void solve_t31() {
+        Set<DateConstraint> constraints = new HashSet<>(
+            Arrays.asList(
+                new BinaryDateConstraint(0, "<", 1),
+                new BinaryDateConstraint(1, "!=", 2),
+                new BinaryDateConstraint(2, "==", 3),
+                new BinaryDateConstraint(3, "!=", 4),
+                new BinaryDateConstraint(4, ">", 0),
+                new UnaryDateConstraint(3, "!=", LocalDate.of(2022, 1, 2))
+            )
+        );
+        LocalDate startRange = LocalDate.of(2022, 1, 1),
+                  endRange   = LocalDate.of(2022, 1, 3);
+        
+        // Any configuration's answer will do, from a portfolio of any size...
+        testSolution(PortfolioSolver.solve(5, startRange, endRange, constraints), constraints);
+        for (int size : new int[] {1, 4, 6}) {
+            List<SolverOptions> portfolio = PortfolioSolver.defaultPortfolio(size);
+            assertEquals(size, portfolio.size());
+            SolveResult result = PortfolioSolver.solve(5, startRange, endRange, constraints, portfolio, new Budget());
+            assertEquals(SolveResult.Status.SOLVED, result.STATUS);
+            testSolution(result.SOLUTION, constraints);
+        }
+        
+        // ... including a proof that there is no solution, as for 4 meetings on
+        // different days of a 3-day range
+        constraints.clear();
+        for (int i = 0; i < 4; i++) {
+            for (int j = i + 1; j < 4; j++) {
+                constraints.add(new BinaryDateConstraint(i, "!=", j));
+            }
+        }
+        assertNull(PortfolioSolver.solve(4, startRange, endRange, constraints));
+        
+        // On a problem too hard for every configuration, the portfolio stops once each
+        // of them is out of budget, at the deadline, or as soon as it is cancelled
+        constraints.clear();
+        for (int i = 0; i < 12; i++) {
+            for (int j = i + 1; j < 12; j++) {
+                constraints.add(new BinaryDateConstraint(i, "!=", j));
+            }
+        }
+        endRange = LocalDate.of(2022, 1, 11);
+        Budget budget = new Budget();
+        budget.fails = 1000;
+        SolveResult result = PortfolioSolver.solve(12, startRange, endRange, constraints, PortfolioSolver.defaultPortfolio(4), budget);
+        assertEquals(SolveResult.Status.TIMEOUT, result.STATUS);
+        assertTrue(result.SOLUTION.contains(null));
+        budget.fails = Long.MAX_VALUE;
+        budget.deadline = Instant.now().plusMillis(100);
+        result = PortfolioSolver.solve(12, startRange, endRange, constraints, PortfolioSolver.defaultPortfolio(4), budget);
+        assertTrue(result.STATUS == SolveResult.Status.TIMEOUT || result.STATUS == SolveResult.Status.UNSAT);
+        budget.deadline = null;
+        budget.cancellation = new CancellationToken();
+        budget.cancellation.cancel();
+        result = PortfolioSolver.solve(12, startRange, endRange, constraints, PortfolioSolver.defaultPortfolio(4), budget);
+        assertEquals(SolveResult.Status.CANCELLED, result.STATUS);
+    }
+    
+    
+    // Domain Tests
+    // -------------------------------------------------
+    @Test
+    public void domain_t0() {
+        DateBitSet days = new DateBitSet(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 3, 31));
+        
+        // 90 days spans two words of the bitset
+        assertEquals(90, days.cardinality());
+        assertEquals(LocalDate.of(2022, 1, 1).toEpochDay(), days.firstDay());
+        assertEquals(LocalDate.of(2022, 3, 31).toEpochDay(), days.lastDay());
+        
+        days.removeIf(d -> d.getMonthValue() != 2);
+        assertEquals(28, days.size());
+        assertTrue(days.contains(LocalDate.of(2022, 2, 14)));
+        assertTrue(!days.contains(LocalDate.of(2022, 3, 1)));
+        assertEquals(LocalDate.of(2022, 2, 1).toEpochDay(), days.nextDay(LocalDate.of(2022, 1, 5).toEpochDay()));
+        assertEquals(LocalDate.of(2022, 2, 28).toEpochDay(), days.prevDay(LocalDate.of(2022, 3, 20).toEpochDay()));
+        assertEquals(DateBitSet.NONE, days.nextDay(LocalDate.of(2022, 3, 1).toEpochDay()));
+        
+        // Iteration is in ascending date order
+        LocalDate prev = null;
+        for (LocalDate d : days) {
+            assertTrue(prev == null || prev.isBefore(d));
+            prev = d;
+        }
+        assertEquals(LocalDate.of(2022, 2, 28), prev);
+    }
+    
+    @Test
+    public void domain_t1() {
+        DateIntervalSet days = new DateIntervalSet(LocalDate.of(2020, 1, 1), LocalDate.of(2030, 12, 31));
+        assertEquals(1, days.intervalCount());
+        assertEquals(4018, days.size());
+        
+        // Removing from the middle splits the interval, adding it back merges them
+        days.remove(LocalDate.of(2025, 6, 1));
+        assertEquals(2, days.intervalCount());
+        assertTrue(!days.contains(LocalDate.of(2025, 6, 1)));
+        assertEquals(LocalDate.of(2025, 6, 2).toEpochDay(), days.nextDay(LocalDate.of(2025, 6, 1).toEpochDay()));
+        assertEquals(LocalDate.of(2025, 5, 31).toEpochDay(), days.prevDay(LocalDate.of(2025, 6, 1).toEpochDay()));
+        days.add(LocalDate.of(2025, 6, 1));
+        assertEquals(1, days.intervalCount());
+        assertEquals(4018, days.size());
+        
+        days.retainRange(LocalDate.of(2021, 1, 1).toEpochDay(), LocalDate.of(2021, 1, 31).toEpochDay());
+        assertEquals(31, days.size());
+        assertEquals(LocalDate.of(2021, 1, 1), days.iterator().next());
+    }
+    
+    @Test
+    public void domain_t2() {
+        Set<DateConstraint> constraints = new HashSet<>(
+            Arrays.asList(
+                new UnaryDateConstraint(0, ">=", LocalDate.of(2022, 1, 3)),
+                new UnaryDateConstraint(0, "!=", LocalDate.of(2022, 1, 4)),
+                new BinaryDateConstraint(0, "<", 1),
+                new BinaryDateConstraint(1, "==", 2)
+            )
+        );
+        
+        LocalDate startRange = LocalDate.of(2022, 1, 1),
+                  endRange   = LocalDate.of(2022, 1, 5);
+        
+        // Same filtering as the default domains, but on interval-backed ones
+        List<MeetingDomain> domains = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            domains.add(new MeetingDomain(startRange, endRange, MeetingDomain.Kind.INTERVALS));
+        }
+        
+        nodeConsistency(domains, constraints);
+        arcConsistency(domains, constraints);
+        
+        assertEquals(new HashSet<>(Arrays.asList(LocalDate.of(2022, 1, 3))), domains.get(0).domainValues);
+        assertEquals(2, domains.get(1).domainValues.size());
+        assertTrue(domains.get(1).domainValues.contains(LocalDate.of(2022, 1, 4)));
+        assertTrue(domains.get(1).domainValues.contains(LocalDate.of(2022, 1, 5)));
+        assertEquals(domains.get(1).domainValues, domains.get(2).domainValues);
+    }
+    
+    @Test
+    public void domain_t3() {
+        LocalDate start = LocalDate.of(2022, 1, 1), end = LocalDate.of(2022, 3, 31);
+        long day = start.toEpochDay();
+        
+        // Removed runs put back with addRange, merging intervals back together
+        EpochDaySet[] sets = {new DateBitSet(start, end), new DateIntervalSet(start, end)};
+        for (EpochDaySet days : sets) {
+            days.removeRange(day + 10, day + 19);
+            days.removeRange(day + 30, day + 79);
+            days.removeDay(day + 85);
+            assertEquals(29, days.cardinality());
+            
+            assertEquals(10, days.addRange(day + 10, day + 19));
+            assertEquals(50, days.addRange(day + 25, day + 84));
+            assertEquals(1, days.addRange(day + 85, day + 85));
+            assertEquals(90, days.cardinality());
+            assertEquals(end.toEpochDay(), days.runEnd(day));
+        }
+        assertEquals(1, ((DateIntervalSet) sets[1]).intervalCount());
+    }
+    
+    
+    // Constraint Tests
+    // -------------------------------------------------
+    @Test
+    public void constraint_t0() {
+        BinaryDateConstraint bc = new BinaryDateConstraint(0, "<=", 1);
+        long jan1 = LocalDate.of(2022, 1, 1).toEpochDay(),
+             jan2 = LocalDate.of(2022, 1, 2).toEpochDay();
+        
+        // The operator is compiled once and checked on primitive epoch days
+        assertEquals(DateConstraint.Operator.LE, bc.OPERATOR);
+        assertTrue(bc.isSatisfiedBy(jan1, jan2));
+        assertTrue(bc.isSatisfiedBy(jan1, jan1));
+        assertTrue(!bc.isSatisfiedBy(jan2, jan1));
+        assertEquals(DateConstraint.Operator.GE, bc.getReverse().OPERATOR);
+        assertTrue(bc.getReverse().isSatisfiedBy(jan2, jan1));
+        
+        UnaryDateConstraint uc = new UnaryDateConstraint(0, "!=", LocalDate.of(2022, 1, 2));
+        assertEquals(jan2, uc.R_DAY);
+        assertTrue(!uc.isSatisfiedBy(LocalDate.of(2022, 1, 2), uc.R_VAL));
+        
+        try {
+            new BinaryDateConstraint(0, "=<", 1);
+            fail("[X] Invalid operator accepted");
+        } catch (IllegalArgumentException e) {}
+    }
+    
 }